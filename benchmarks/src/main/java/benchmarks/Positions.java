@@ -0,0 +1,39 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import converters.ChessPositionConverter;
+
+/**
+ * Games set up by playing coordinate moves from the starting position, shared by the benchmarks
+ */
+final class Positions {
+
+    // Italian game after 4...Bc5: every piece type is developed and nothing is in check
+    static final String[] MIDDLEGAME = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "d2d3", "f8c5"};
+    // Fool's mate: white is checkmated
+    static final String[] CHECKMATE = {"f2f3", "e7e5", "g2g4", "d8h4"};
+
+    private Positions() {
+    }
+
+    static ChessGame play(String... moves) {
+        ChessGame game = new ChessGame();
+        try {
+            for (String move : moves) {
+                game.makeMove(move(move));
+            }
+        } catch (InvalidMoveException e) {
+            throw new IllegalStateException(e);
+        }
+        return game;
+    }
+
+    static ChessMove move(String coordinates) {
+        int[] start = ChessPositionConverter.convertMove(coordinates.substring(0, 2));
+        int[] end = ChessPositionConverter.convertMove(coordinates.substring(2, 4));
+        return new ChessMove(new ChessPosition(start[0], start[1]), new ChessPosition(end[0], end[1]), null);
+    }
+}
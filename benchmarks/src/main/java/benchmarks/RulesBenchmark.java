@@ -0,0 +1,114 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.GameStatus;
+import chess.InvalidMoveException;
+import chess.rules.BulkAnalyzer;
+import chess.rules.LegalMoveGenerator;
+import chess.rules.MoveList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the rules engine calls the server makes for every move.
+ * <p>
+ * ChessGame answers move queries from LegalMoveCache.SHARED, so after the first call on a fixed
+ * position it would only measure a cache hit. The move generation benchmarks therefore call
+ * LegalMoveGenerator directly, the way a cache miss does, and legalMovesCacheHit measures the
+ * cached path on its own.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar -prof gc} to also see allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RulesBenchmark {
+
+    private static final ChessMove KNIGHT_OUT = Positions.move("g1f3");
+
+    private ChessGame middlegame;
+    private ChessGame checkmate;
+    private ChessGame startingGame;
+    private ChessGame moving;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setUp() {
+        middlegame = Positions.play(Positions.MIDDLEGAME);
+        checkmate = Positions.play(Positions.CHECKMATE);
+        startingGame = new ChessGame().freeze();
+    }
+
+    // Every move adds to the game's position history, so each invocation moves from a fresh copy
+    // of the same game and measures the same move, as the server does with a stored game
+    @Setup(Level.Invocation)
+    public void copyStartingGame() {
+        moving = startingGame.copy();
+    }
+
+    @Benchmark
+    public void validMovesEverySquare(Blackhole blackhole) {
+        ChessBoard board = middlegame.getBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                blackhole.consume(LegalMoveGenerator.legalMoves(board, new ChessPosition(row, col)));
+            }
+        }
+    }
+
+    @Benchmark
+    public MoveList legalMoves() {
+        moves.clear();
+        new LegalMoveGenerator(middlegame.getBoard(), middlegame.getTeamTurn()).generate(moves);
+        return moves;
+    }
+
+    @Benchmark
+    public Object legalMovesCacheHit() {
+        return middlegame.legalMoves(middlegame.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        moving.makeMove(KNIGHT_OUT);
+        return moving;
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return middlegame.isInCheck(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateWhenMated() {
+        return isInCheckmate(checkmate);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateWhenNot() {
+        return isInCheckmate(middlegame);
+    }
+
+    @Benchmark
+    public GameStatus evaluateStatus() {
+        return BulkAnalyzer.evaluateStatus(middlegame, moves);
+    }
+
+    @Benchmark
+    public ChessBoard boardCopy() {
+        return middlegame.getBoard().copy();
+    }
+
+    private static boolean isInCheckmate(ChessGame game) {
+        LegalMoveGenerator generator = new LegalMoveGenerator(game.getBoard(), ChessGame.TeamColor.WHITE);
+        return generator.isInCheck() && !generator.hasLegalMove();
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the Gson round trip every stored game makes on its way to and from the database
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        game = Positions.play(Positions.MIDDLEGAME);
+        json = game.toJson();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return game.toJson();
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(game.toJson(), ChessGame.class);
+    }
+}
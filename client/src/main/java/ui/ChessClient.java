@@ -2,6 +2,7 @@ package ui;
 
 import chess.*;
 import chess.exception.ResponseException;
+import chess.notation.San;
 import converters.ChessPositionConverter;
 import converters.ConvertStringToPieceType;
 import model.AuthData;
@@ -102,13 +103,21 @@ public class ChessClient {
     public String move(String[] params) {
         resignCheck = false;
         try {
-            int[] start = ChessPositionConverter.convertMove(params[0]);
-            int[] end = ChessPositionConverter.convertMove(params[1]);
-            String promo = (params.length == 3) ? params[2] : null;
-            ChessMove move = new ChessMove(new ChessPosition(start[0], start[1]), new ChessPosition(end[0], end[1]),
-                                           (promo == null) ? null : new ConvertStringToPieceType().convert(promo));
+            ChessMove move;
+            if (params.length == 1) {
+                // A single word is a move in algebraic notation, e.g. Nf3 or exd5
+                move = San.parse(currentGame.game(), params[0]);
+            } else {
+                int[] start = ChessPositionConverter.convertMove(params[0]);
+                int[] end = ChessPositionConverter.convertMove(params[1]);
+                String promo = (params.length == 3) ? params[2] : null;
+                move = new ChessMove(new ChessPosition(start[0], start[1]), new ChessPosition(end[0], end[1]),
+                                     (promo == null) ? null : new ConvertStringToPieceType().convert(promo));
+            }
             ws.makeMove(move, currentGame.gameID());
             return "";
+        } catch (InvalidMoveException e) {
+            return SET_TEXT_COLOR_YELLOW + e.getMessage();
         } catch (ResponseException e) {
             return handleResponseException(e);
         } catch (IllegalArgumentException e) {
@@ -291,6 +300,7 @@ public class ChessClient {
                     - help
                     - redraw (redraws the board)
                     - move <yourPieceCoordinates> <targetCoordinates> (move a3 a4)
+                    - move <algebraicMove> (move Nf3, move exd5, move O-O, move e8=Q)
                     - highlight <pieceCoordinates> (b2)
                     - leave (leave your pieces for someone else to take over)
                     - resign (ends the game, declaring your opponent the winner)
@@ -372,7 +382,7 @@ public class ChessClient {
     private static String listGamesDisplay(GameData game) {
         String whitePlayer = (game.whiteUsername() == null) ? "Available" : game.whiteUsername();
         String blackPlayer = (game.blackUsername() == null) ? "Available" : game.blackUsername();
-        String status = game.game().gameOver ? "Finished" : "Ongoing";
+        String status = game.game().isGameOver() ? "Finished" : "Ongoing";
         return SET_TEXT_COLOR_MAGENTA + "   Name: " + SET_TEXT_COLOR_BLUE + game.gameName()
                 + SET_TEXT_COLOR_MAGENTA + " Status: " + SET_TEXT_COLOR_BLUE + status
                 + SET_TEXT_COLOR_MAGENTA + "\n      WhiteTeam: " + SET_TEXT_COLOR_BLUE + whitePlayer
@@ -11,7 +11,9 @@ import model.*;
 import spark.*;
 import com.google.gson.*;
 import server.websocket.WebSocketHandler;
+import chess.tablebase.LocalTablebase;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Map;
 
@@ -33,7 +35,10 @@ public class Server {
         }
 
         service = new Service(db);
-        webSocketHandler = new WebSocketHandler(db);
+        // Tables written by chess.tablebase.TablebaseGenerator, if the server is given a directory
+        String tablebaseDirectory = System.getProperty("chess.tablebase");
+        webSocketHandler = new WebSocketHandler(db,
+                tablebaseDirectory == null ? null : new LocalTablebase(Path.of(tablebaseDirectory)));
     }
 
     public int run(int desiredPort) {
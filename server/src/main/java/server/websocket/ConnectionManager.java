@@ -58,9 +58,12 @@ public class ConnectionManager {
 
         public void broadcastToGameRoom(String gameID, ServerMessage message, String userExempt) throws IOException {
         ArrayList<Connection> usersInGameRoom = connectionsInGame.get(gameID);
+        // Stored games are frozen and replaced by changed copies rather than changed themselves, so a
+        // game in a message cannot change while it is sent and one serialization serves everyone
+        String json = message.toString();
         for (var c : usersInGameRoom) {
             if (c.session.isOpen() && !Objects.equals(c.visitorName, userExempt)) {
-                c.send(message.toString());
+                c.send(json);
             }
         }
     }
@@ -1,7 +1,11 @@
 package server.websocket;
 
 import chess.ChessGame;
+import chess.GameStatus;
 import chess.InvalidMoveException;
+import chess.notation.San;
+import chess.tablebase.Tablebase;
+import chess.tablebase.Wdl;
 import com.google.gson.Gson;
 import dataaccess.DataInterface;
 import model.AuthData;
@@ -23,13 +27,20 @@ import java.util.Objects;
 public class WebSocketHandler {
 
     private final DataInterface db;
+    // Adjudicates decided endgames; null to always play them out
+    private final Tablebase tablebase;
     private final ConnectionManager connections = new ConnectionManager();
     private static final String TOKENERROR = "Error invalid token";
     private static final String USEREXISTERROR = "Error user does not exist";
     private static final String INVALIDIDERROR = "ERROR invalid game ID";
 
     public WebSocketHandler(DataInterface db) {
+        this(db, null);
+    }
+
+    public WebSocketHandler(DataInterface db, Tablebase tablebase) {
         this.db = db;
+        this.tablebase = tablebase;
     }
 
     @OnWebSocketMessage
@@ -57,8 +68,10 @@ public class WebSocketHandler {
                 return;
             }
 
-            ChessGame game = gameData.game();
-            if (Boolean.TRUE.equals(game.gameOver)) {
+            // The stored game is frozen, since other threads may be reading or broadcasting it, so
+            // the move is made on a copy that is frozen in turn and replaces it once complete
+            ChessGame game = gameData.game().copy();
+            if (game.isGameOver()) {
                 sendError(session, "Game has finished, please leave game and join a new one");
                 return;
             }
@@ -75,37 +88,58 @@ public class WebSocketHandler {
 
 
 
+            // Written before the move is made, since SAN depends on the position it is played from
+            String moveText = San.format(game, command.move);
             game.makeMove(command.move);
 
             NotificationServerMessage extraMsg = null;
-            boolean gameOver = false;
 
-            if (game.isInCheck(userColor)) {
-                sendError(session, "Can't put self in check");
-                return;
-            }
-            if (game.isInCheckmate(oppColor)) {
+            // makeMove only accepts legal moves, so the mover cannot have left their own king in check
+            GameStatus status = game.evaluateStatus();
+            if (status.isCheckmate()) {
                 extraMsg = new NotificationServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
                         String.format("Checkmate, %s wins! Please leave game to join a new one", userData.username()));
-                gameOver = true;
-            } else if (game.isInCheck(oppColor)) {
+            } else if (status.inCheck()) {
                 extraMsg = new NotificationServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
                         String.format("%s is in check", oppName));
-            } else if (game.isInStalemate(oppColor)) {
+            } else if (status.isStalemate()) {
                 extraMsg = new NotificationServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
                         String.format("%s in stalemate, %s wins! Please leave game to join a new one", oppName, userData.username()));
+            } else if (status.isThreefoldRepetition()) {
+                extraMsg = new NotificationServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
+                        "Draw by threefold repetition. Please leave game to join a new one");
+            } else if (status.isFiftyMoveDraw()) {
+                extraMsg = new NotificationServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
+                        "Draw by the fifty-move rule. Please leave game to join a new one");
+            } else if (status.insufficientMaterial()) {
+                extraMsg = new NotificationServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
+                        "Draw, neither side can checkmate. Please leave game to join a new one");
+            }
+
+            boolean gameOver = status.isGameOver();
+            Wdl adjudication = gameOver || tablebase == null ? null : tablebase.probe(game);
+            if (adjudication != null) {
+                // The result is already decided, so the game is not played out
+                String result = switch (adjudication) {
+                    case WIN -> String.format("%s wins", oppName);
+                    case LOSS -> String.format("%s wins", userData.username());
+                    case DRAW -> "Draw";
+                };
+                extraMsg = new NotificationServerMessage(ServerMessage.ServerMessageType.NOTIFICATION,
+                        String.format("%s, the endgame is decided with best play. Please leave game to join a new one",
+                                result));
                 gameOver = true;
             }
 
             game.setGameOver(gameOver);
+            game.freeze();
             GameData newGame = new GameData(command.getGameID(), gameData.whiteUsername(),
                     gameData.blackUsername(), gameData.gameName(), game);
             db.updateGame(command.getGameID(), newGame);
             LoadServerMessage loadMessage = new LoadServerMessage(ServerMessage.ServerMessageType.LOAD_GAME, newGame);
             connections.broadcastToGameRoom(command.getGameID().toString(), loadMessage);
 
-            String moveMessage = String.format("%s made move %s", userData.username(),
-                    command.move.toLetterCombo());
+            String moveMessage = String.format("%s made move %s", userData.username(), moveText);
             NotificationServerMessage notification = new NotificationServerMessage(
                     ServerMessage.ServerMessageType.NOTIFICATION, moveMessage);
             connections.broadcastToGameRoom(command.getGameID().toString(), notification, userData.username());
@@ -113,7 +147,7 @@ public class WebSocketHandler {
                 connections.broadcastToGameRoom(command.getGameID().toString(), extraMsg);
             }
 
-        } catch (InvalidMoveException e) {
+        } catch (InvalidMoveException | IllegalArgumentException e) {
             sendError(session, "Invalid move");
         } catch (Exception e) {
             System.out.println(e.getMessage());
@@ -133,7 +167,7 @@ public class WebSocketHandler {
                 return;
             }
 
-            if (Boolean.TRUE.equals(gameData.game().gameOver)) {
+            if (gameData.game().isGameOver()) {
                 sendError(session, "Game has finished, please leave game and join a new one");
                 return;
             }
@@ -171,7 +205,7 @@ public class WebSocketHandler {
             ChessGame.TeamColor userColor = getUserTeamColor(gameData, userData.username());
             String username = userData.username();
             GameData game = gameData;
-            if (Boolean.TRUE.equals(gameData.game().gameOver)) {
+            if (gameData.game().isGameOver()) {
                 String message = String.format("%s left game", username);
                 connections.remove(username);
                 connections.removeFromGameRoom(command.getGameID().toString(), username);
@@ -216,7 +250,7 @@ public class WebSocketHandler {
                 return;
             }
 
-            if (Boolean.TRUE.equals(gameData.game().gameOver)) {
+            if (gameData.game().isGameOver()) {
                 sendError(session, "ERROR Game has finished, cannot resign");
                 return;
             }
@@ -227,9 +261,11 @@ public class WebSocketHandler {
                 return;
             }
 
-            gameData.game().setGameOver(true);
+            ChessGame game = gameData.game().copy();
+            game.setGameOver(true);
+            game.freeze();
             GameData newGame = new GameData(command.getGameID(), gameData.whiteUsername(),
-                    gameData.blackUsername(), gameData.gameName(), gameData.game());
+                    gameData.blackUsername(), gameData.gameName(), game);
             db.updateGame(command.getGameID(), newGame);
 
             String winner = equals ? gameData.blackUsername() : gameData.whiteUsername();
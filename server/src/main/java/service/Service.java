@@ -94,7 +94,7 @@ public class Service {
             if (gameName.isEmpty()) {
                 throw new ResponseException(400, "error: bad request");
             }
-            GameData newGame = new GameData(newGameID(), null, null, gameName, new ChessGame());
+            GameData newGame = new GameData(newGameID(), null, null, gameName, new ChessGame().freeze());
             return db.createGame(newGame);
         }
         return 0;
@@ -0,0 +1,160 @@
+package chess;
+
+/**
+ * Bitboard representation of a chess board: one 64-bit set per team and piece type.
+ * <p>
+ * Bit 0 is a1 (row 1, column 1), bit 7 is h1 and bit 63 is h8. ChessBoard keeps an
+ * instance of this class in step with its piece array so that scans over the board
+ * can walk set bits instead of all 64 squares.
+ */
+public class Bitboards {
+
+    public static final int PIECE_KINDS = 12;
+
+    private final long[] pieces = new long[PIECE_KINDS];
+    private long whitePieces;
+    private long blackPieces;
+
+    public Bitboards() {
+        //Empty Constructor
+    }
+
+    /**
+     * @return the square index (0-63) for a 1-based row and column
+     */
+    public static int square(int row, int col) {
+        return ((row - 1) << 3) | (col - 1);
+    }
+
+    /**
+     * @return the square index (0-63) for the given position
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return the index (0-11) of the bitboard holding pieces of this team and type
+     */
+    public static int index(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    public static boolean isOnBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[index(color, type)];
+    }
+
+    public long pieces(int index) {
+        return pieces[index];
+    }
+
+    public long occupancy(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? whitePieces : blackPieces;
+    }
+
+    public long occupancy() {
+        return whitePieces | blackPieces;
+    }
+
+    public boolean isEmpty(int square) {
+        return ((whitePieces | blackPieces) & (1L << square)) == 0;
+    }
+
+    /**
+     * @return the bitboard index of the piece on the square, or -1 if the square is empty
+     */
+    public int pieceIndexAt(int square) {
+        long bit = 1L << square;
+        if (((whitePieces | blackPieces) & bit) == 0) {
+            return -1;
+        }
+        int first = (whitePieces & bit) != 0 ? 0 : 6;
+        for (int i = first; i < first + 6; i++) {
+            if ((pieces[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the square of the given team's king, or -1 if it has no king on the board
+     */
+    public int kingSquare(ChessGame.TeamColor color) {
+        long king = pieces[index(color, ChessPiece.PieceType.KING)];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Places a piece on a square, replacing whatever was there. A null piece empties the square.
+     */
+    public void set(int square, ChessPiece piece) {
+        clear(square);
+        if (piece != null) {
+            long bit = 1L << square;
+            pieces[index(piece.getTeamColor(), piece.getPieceType())] |= bit;
+            if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
+                whitePieces |= bit;
+            } else {
+                blackPieces |= bit;
+            }
+        }
+    }
+
+    public void clear(int square) {
+        long mask = ~(1L << square);
+        for (int i = 0; i < PIECE_KINDS; i++) {
+            pieces[i] &= mask;
+        }
+        whitePieces &= mask;
+        blackPieces &= mask;
+    }
+
+    public void clearAll() {
+        for (int i = 0; i < PIECE_KINDS; i++) {
+            pieces[i] = 0;
+        }
+        whitePieces = 0;
+        blackPieces = 0;
+    }
+
+    /**
+     * Rebuilds every bitboard from a [row][column] piece array such as ChessBoard's
+     */
+    public void load(ChessPiece[][] board) {
+        clearAll();
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                if (board[i][j] != null) {
+                    set((i << 3) | j, board[i][j]);
+                }
+            }
+        }
+    }
+
+    public Bitboards copy() {
+        Bitboards copy = new Bitboards();
+        System.arraycopy(this.pieces, 0, copy.pieces, 0, PIECE_KINDS);
+        copy.whitePieces = this.whitePieces;
+        copy.blackPieces = this.blackPieces;
+        return copy;
+    }
+}
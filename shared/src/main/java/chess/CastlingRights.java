@@ -0,0 +1,92 @@
+package chess;
+
+/**
+ * Castling rights packed into the low four bits of an int.
+ * <p>
+ * A right is lost for good once its king or rook moves or the rook is captured. A board also
+ * only offers a right while the king and rook are both on their home squares, so a board set up
+ * piece by piece gets exactly the rights its placement allows.
+ */
+public final class CastlingRights {
+
+    public static final int NONE = 0;
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 1 << 1;
+    public static final int BLACK_KING_SIDE = 1 << 2;
+    public static final int BLACK_QUEEN_SIDE = 1 << 3;
+    public static final int ALL = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+
+    // Indexed by right: white king side, white queen side, black king side, black queen side
+    private static final int[] KING_HOME = {4, 4, 60, 60};
+    private static final int[] ROOK_HOME = {7, 0, 63, 56};
+    private static final int[] KING_TARGET = {6, 2, 62, 58};
+    private static final int[] ROOK_TARGET = {5, 3, 61, 59};
+
+    // The rights that survive a move starting or ending on each square
+    private static final int[] RETAINED = new int[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            RETAINED[square] = ALL;
+        }
+        for (int right = 0; right < 4; right++) {
+            RETAINED[KING_HOME[right]] &= ~(1 << right);
+            RETAINED[ROOK_HOME[right]] &= ~(1 << right);
+        }
+    }
+
+    private CastlingRights() {
+    }
+
+    /**
+     * @return the index (0-3) of the first right belonging to the team; the team's rights are
+     * that index (king side) and the next (queen side)
+     */
+    public static int firstRight(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? 0 : 2;
+    }
+
+    public static int kingHome(int right) {
+        return KING_HOME[right];
+    }
+
+    public static int rookHome(int right) {
+        return ROOK_HOME[right];
+    }
+
+    /**
+     * @return the square the king lands on when castling with this right
+     */
+    public static int kingTarget(int right) {
+        return KING_TARGET[right];
+    }
+
+    /**
+     * @return the square the rook lands on when castling with this right
+     */
+    public static int rookTarget(int right) {
+        return ROOK_TARGET[right];
+    }
+
+    /**
+     * @return the rights left after a move from one square to another
+     */
+    public static int afterMove(int rights, int from, int to) {
+        return rights & RETAINED[from] & RETAINED[to];
+    }
+
+    /**
+     * @return the rights whose king and rook are both on their home squares
+     */
+    public static int available(Bitboards bitboards) {
+        int available = NONE;
+        for (int right = 0; right < 4; right++) {
+            ChessGame.TeamColor color = right < 2 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            if ((bitboards.pieces(color, ChessPiece.PieceType.KING) & 1L << KING_HOME[right]) != 0
+                    && (bitboards.pieces(color, ChessPiece.PieceType.ROOK) & 1L << ROOK_HOME[right]) != 0) {
+                available |= 1 << right;
+            }
+        }
+        return available;
+    }
+}
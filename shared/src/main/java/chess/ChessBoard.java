@@ -1,6 +1,8 @@
 package chess;
 
-import java.util.Arrays;
+import chess.rules.AttackTables;
+import chess.rules.PackedMove;
+
 import java.util.Objects;
 
 /**
@@ -11,7 +13,33 @@ import java.util.Objects;
  */
 public class ChessBoard {
 
+    // FEN letters in Bitboards index order, and castling letters in CastlingRights bit order
+    private static final String FEN_PIECES = "KQBNRPkqbnrp";
+    private static final String FEN_CASTLING = "KQkq";
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    // a1, c1, ... then b2, d2, ...
+    private static final long DARK_SQUARES = 0xAA55AA55AA55AA55L;
+    private static final int ALL_ROWS = 0xFF;
+
     private ChessPiece[][] board = new ChessPiece[8][8];
+    // Rights not yet lost to a king or rook move; only those whose pieces are home are offered
+    private int castlingRights = CastlingRights.ALL;
+    // The square a pawn skipped with its last double push, or -1
+    private int enPassantSquare = -1;
+    // Bitboards, the piece placement key and the piece-square sums mirror the piece array; indexedBoard
+    // is the array they were built from, so a board replaced wholesale (resetBoard, Gson) is re-indexed
+    // on next use
+    private transient Bitboards bitboards = new Bitboards();
+    private transient long pieceKey;
+    private transient int openingScore;
+    private transient int endgameScore;
+    private transient int phase;
+    private transient ChessPiece[][] indexedBoard = board;
+    // Rows of the piece array still held by the frozen board this one was copied from, one bit per
+    // row. Such a row is cloned before it is first changed.
+    private transient int sharedRows;
+    private transient boolean frozen;
 
     public ChessBoard() {
         //Empty Constructor
@@ -24,8 +52,35 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
+        checkNotFrozen();
+        ChessPiece replaced = board[position.getArrayRow()][position.getArrayColumn()];
+        ownRow(position.getArrayRow());
         board[position.getArrayRow()][position.getArrayColumn()] = piece;
+        indexSquare(Bitboards.square(position), replaced, piece);
+    }
 
+    private void putPiece(int square, ChessPiece piece) {
+        ChessPiece replaced = board[square >>> 3][square & 7];
+        ownRow(square >>> 3);
+        board[square >>> 3][square & 7] = piece;
+        indexSquare(square, replaced, piece);
+    }
+
+    private void ownRow(int row) {
+        if ((sharedRows & 1 << row) != 0) {
+            board[row] = board[row].clone();
+            sharedRows &= ~(1 << row);
+        }
+    }
+
+    private void indexSquare(int square, ChessPiece replaced, ChessPiece piece) {
+        if (indexedBoard == board) {
+            bitboards.set(square, piece);
+            pieceKey ^= Zobrist.pieceKey(replaced, square) ^ Zobrist.pieceKey(piece, square);
+            openingScore += PieceSquareTables.opening(piece, square) - PieceSquareTables.opening(replaced, square);
+            endgameScore += PieceSquareTables.endgame(piece, square) - PieceSquareTables.endgame(replaced, square);
+            phase += PieceSquareTables.phase(piece) - PieceSquareTables.phase(replaced);
+        }
     }
 
     /**
@@ -39,30 +94,260 @@ public class ChessBoard {
         return board[position.getArrayRow()][position.getArrayColumn()];
     }
 
+    /**
+     * @return the piece on a Bitboards square index (0 is a1, 63 is h8), or null if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return board[square >>> 3][square & 7];
+    }
+
+    /**
+     * @return a copy of the piece array, indexed [row - 1][column - 1]; changing it does not
+     * change the board, whose bitboards and keys must stay in step with its pieces
+     */
     public ChessPiece[][] getBoard() {
-        return board;
+        ChessPiece[][] copy = board.clone();
+        for (int row = 0; row < 8; row++) {
+            copy[row] = board[row].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the bitboard view of this board, rebuilding it if the piece array was replaced
+     *
+     * @return bitboards matching the current piece placement
+     */
+    public Bitboards getBitboards() {
+        reindex();
+        return bitboards;
     }
 
-public void makeMove(ChessMove move) {
-    ChessPiece movingPiece = this.getPiece(move.getStartPosition());
-    if (movingPiece == null) {
-        return;
+    /**
+     * Gets the Zobrist key of the position: piece placement, castling rights and en passant
+     * square. The side to move is not part of a board; ChessGame.getZobristKey adds it.
+     *
+     * @return a 64-bit hash that is equal for boards offering the same moves
+     */
+    public long getZobristKey() {
+        reindex();
+        return pieceKey ^ Zobrist.castlingKey(getCastlingRights()) ^ Zobrist.enPassantKey(enPassantSquare);
     }
-    if (movingPiece.getPieceType() == ChessPiece.PieceType.PAWN && move.getPromotionPiece() != null) {
-        this.addPiece(move.getEndPosition(), new ChessPiece(movingPiece.getTeamColor(), move.getPromotionPiece()));
-        this.addPiece(move.getStartPosition(), null);
-    } else {
-        this.addPiece(move.getEndPosition(), movingPiece);
-        this.addPiece(move.getStartPosition(), null);
+
+    private void reindex() {
+        if (indexedBoard != board) {
+            bitboards.load(board);
+            pieceKey = Zobrist.keyOf(board);
+            scorePieces();
+            indexedBoard = board;
+        }
+    }
+
+    private void scorePieces() {
+        openingScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = getPiece(square);
+            openingScore += PieceSquareTables.opening(piece, square);
+            endgameScore += PieceSquareTables.endgame(piece, square);
+            phase += PieceSquareTables.phase(piece);
+        }
+    }
+
+    /**
+     * Gets the material and piece-square score of the position, kept up to date as pieces move
+     * so reading it does not look at the squares
+     *
+     * @return the score in centipawns, positive when white is better
+     */
+    public int getPieceSquareScore() {
+        reindex();
+        return PieceSquareTables.blend(openingScore, endgameScore, phase);
+    }
+
+    /**
+     * @return how many minor and major pieces are left, weighted as in PieceSquareTables, from
+     * PieceSquareTables.MAX_PHASE at the start of a game down to 0
+     */
+    public int getGamePhase() {
+        reindex();
+        return Math.min(phase, PieceSquareTables.MAX_PHASE);
+    }
+
+    /**
+     * Determines if neither team has the pieces to checkmate by any series of legal moves: only
+     * kings and at most one knight or bishop, or only kings and bishops that all stand on squares
+     * of one color
+     *
+     * @return True if the position is a dead draw on material alone
+     */
+    public boolean hasInsufficientMaterial() {
+        Bitboards pieces = getBitboards();
+        long minors = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            if ((pieces.pieces(color, ChessPiece.PieceType.QUEEN) | pieces.pieces(color, ChessPiece.PieceType.ROOK)
+                    | pieces.pieces(color, ChessPiece.PieceType.PAWN)) != 0) {
+                return false;
+            }
+            minors |= pieces.pieces(color, ChessPiece.PieceType.BISHOP)
+                    | pieces.pieces(color, ChessPiece.PieceType.KNIGHT);
+        }
+        if (Long.bitCount(minors) <= 1) {
+            return true;
+        }
+        long knights = pieces.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+                | pieces.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        return knights == 0 && ((minors & DARK_SQUARES) == 0 || (minors & ~DARK_SQUARES) == 0);
+    }
+
+    /**
+     * @return the CastlingRights still held whose king and rook are on their home squares
+     */
+    public int getCastlingRights() {
+        return castlingRights & CastlingRights.available(getBitboards());
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        checkNotFrozen();
+        this.castlingRights = castlingRights & CastlingRights.ALL;
+    }
+
+    /**
+     * @return the square a pawn skipped with a double push on the last move, if an enemy pawn
+     * stands beside it to capture en passant, otherwise -1
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        checkNotFrozen();
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    /**
+     * Determines if any piece of the given team could capture on a square
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if the square is attacked by byColor
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return AttackTables.isSquareAttacked(getBitboards(), Bitboards.square(position), byColor);
+    }
+
+    /**
+     * Moves a piece in place, promoting it if the move calls for it. A king moving two columns
+     * castles, taking its rook along, and a pawn moving diagonally onto an empty square captures
+     * en passant. The board does not check the move against the rules; ChessGame is responsible
+     * for that.
+     *
+     * @param move the move to make
+     * @return a record that undoes the move when passed to unmakeMove, or null if the
+     * start position was empty and nothing moved
+     */
+    public MoveUndo makeMove(ChessMove move) {
+        return makeMove(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    /**
+     * Same as makeMove(ChessMove) for a move packed by PackedMove, as produced by the move generator
+     */
+    public MoveUndo makeMove(int move) {
+        return makeMove(PackedMove.from(move), PackedMove.to(move), PackedMove.promotion(move));
+    }
+
+    private MoveUndo makeMove(int from, int to, ChessPiece.PieceType promotion) {
+        checkNotFrozen();
+        ChessPiece movingPiece = getPiece(from);
+        if (movingPiece == null) {
+            return null;
+        }
+        int captureSquare = to;
+        ChessPiece capturedPiece = getPiece(to);
+        ChessPiece.PieceType type = movingPiece.getPieceType();
+
+        if (type == ChessPiece.PieceType.PAWN && capturedPiece == null && (from & 7) != (to & 7)) {
+            // En passant: the captured pawn is beside the start square, not on the end square
+            captureSquare = (from & ~7) | (to & 7);
+            capturedPiece = getPiece(captureSquare);
+            putPiece(captureSquare, null);
+        }
+        MoveUndo undo = new MoveUndo(from, to, movingPiece, capturedPiece, captureSquare, castlingRights, enPassantSquare);
+
+        if (type == ChessPiece.PieceType.PAWN && promotion != null) {
+            putPiece(to, ChessPiece.of(movingPiece.getTeamColor(), promotion));
+        } else {
+            putPiece(to, movingPiece);
+        }
+        putPiece(from, null);
+
+        int rookFrom = castlingRookSquare(type, from, to);
+        if (rookFrom >= 0 && getPiece(rookFrom) != null) {
+            putPiece((from + to) / 2, getPiece(rookFrom));
+            putPiece(rookFrom, null);
+        }
+
+        castlingRights = CastlingRights.afterMove(castlingRights, from, to);
+        enPassantSquare = type == ChessPiece.PieceType.PAWN && Math.abs(to - from) == 16
+                && canCaptureEnPassant(to, movingPiece.getTeamColor()) ? (from + to) / 2 : -1;
+        return undo;
+    }
+
+    // The corner a castling king's rook starts on, or -1 if the move is not a castle
+    private static int castlingRookSquare(ChessPiece.PieceType type, int from, int to) {
+        if (type != ChessPiece.PieceType.KING || Math.abs(to - from) != 2) {
+            return -1;
+        }
+        return to > from ? to + 1 : to - 2;
+    }
+
+    // True if an enemy pawn stands beside a pawn that just double pushed to the given square
+    private boolean canCaptureEnPassant(int square, ChessGame.TeamColor pushedColor) {
+        ChessGame.TeamColor enemy = pushedColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        ChessPiece enemyPawn = ChessPiece.of(enemy, ChessPiece.PieceType.PAWN);
+        int column = square & 7;
+        return (column > 0 && enemyPawn.equals(getPiece(square - 1)))
+                || (column < 7 && enemyPawn.equals(getPiece(square + 1)));
+    }
+
+    /**
+     * Takes back a move made with makeMove, restoring any captured or promoted piece, a castled
+     * rook, and the castling rights and en passant square from before the move
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void unmakeMove(MoveUndo undo) {
+        checkNotFrozen();
+        if (undo == null) {
+            return;
+        }
+        int from = undo.from();
+        int to = undo.to();
+        int rookFrom = castlingRookSquare(undo.movedPiece().getPieceType(), from, to);
+        if (rookFrom >= 0 && getPiece(rookFrom) == null) {
+            putPiece(rookFrom, getPiece((from + to) / 2));
+            putPiece((from + to) / 2, null);
+        }
+        putPiece(from, undo.movedPiece());
+        putPiece(to, null);
+        putPiece(undo.captureSquare(), undo.capturedPiece());
+        castlingRights = undo.castlingRights();
+        enPassantSquare = undo.enPassantSquare();
     }
-}
 
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
+        checkNotFrozen();
         clearBoard();
+        castlingRights = CastlingRights.ALL;
+        enPassantSquare = -1;
         for (int i = 0; i < 8; i++) {
             for (int j = 0; j < 8; j++) {
                 board[i][j] = setPiece(i, j);
@@ -72,6 +357,7 @@ public void makeMove(ChessMove move) {
 
     private void clearBoard() {
         board = new ChessPiece[8][8];
+        sharedRows = 0;
     }
 
     private ChessPiece setPiece(int row, int col) {
@@ -79,45 +365,45 @@ public void makeMove(ChessMove move) {
             case 0 -> {
                 switch (col) {
                     case 0, 7 -> {
-                        return new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+                        return ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
                     }
                     case 1, 6 -> {
-                        return new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+                        return ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
                     }
                     case 2, 5 -> {
-                        return new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
+                        return ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
                     }
                     case 3 -> {
-                        return new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+                        return ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
                     }
                     case 4 -> {
-                        return new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+                        return ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
                     }
                     default -> {return null;}
                 }
             }
             case 1 -> {
-                return new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+                return ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
             }
             case 6 -> {
-                return new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+                return ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
             }
             case 7 -> {
                 switch (col) {
                     case 0, 7 -> {
-                        return new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+                        return ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
                     }
                     case 1, 6 -> {
-                        return new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+                        return ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
                     }
                     case 2, 5 -> {
-                        return new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+                        return ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
                     }
                     case 3 -> {
-                        return new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+                        return ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
                     }
                     case 4 -> {
-                        return new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+                        return ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
                     }
                     default -> {
                         return null;
@@ -131,19 +417,223 @@ public void makeMove(ChessMove move) {
         }
     }
 
+    /**
+     * Reads a board from Forsyth-Edwards Notation
+     *
+     * @param fen either just the piece placement field, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+     *            or a full FEN, in which case the castling and en passant fields are read too
+     * @return the board described
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static ChessBoard fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        int index = board.readFenPlacement(fen, 0);
+        if (index < fen.length()) {
+            // Skip the side to move; a board does not keep it
+            index = skipFenField(fen, index + 1);
+            index = board.readFenCastling(fen, index + 1);
+            board.readFenEnPassant(fen, index + 1);
+        }
+        return board;
+    }
+
+    /**
+     * @return the piece placement field of this board in Forsyth-Edwards Notation, e.g.
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR". ChessGame.toFen gives the full position.
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        appendFenPlacement(fen);
+        return fen.toString();
+    }
+
+    void appendFenPlacement(StringBuilder fen) {
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = board[row][col];
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(FEN_PIECES.charAt(Bitboards.index(piece.getTeamColor(), piece.getPieceType())));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (row > 0) {
+                fen.append('/');
+            }
+        }
+    }
+
+    void appendFenCastling(StringBuilder fen) {
+        int rights = getCastlingRights();
+        if (rights == CastlingRights.NONE) {
+            fen.append('-');
+            return;
+        }
+        for (int right = 0; right < 4; right++) {
+            if ((rights & 1 << right) != 0) {
+                fen.append(FEN_CASTLING.charAt(right));
+            }
+        }
+    }
+
+    void appendFenEnPassant(StringBuilder fen) {
+        if (enPassantSquare < 0) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + (enPassantSquare & 7))).append((char) ('1' + (enPassantSquare >>> 3)));
+        }
+    }
+
+    // Each read method takes the index a field starts at and returns the index just past it
+
+    int readFenPlacement(String fen, int index) {
+        int row = 7;
+        int col = 0;
+        for (; index < fen.length() && fen.charAt(index) != ' '; index++) {
+            char c = fen.charAt(index);
+            if (c == '/') {
+                if (col != 8 || row == 0) {
+                    throw new IllegalArgumentException("Invalid FEN placement: " + fen);
+                }
+                row--;
+                col = 0;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int piece = FEN_PIECES.indexOf(c);
+                if (piece < 0 || col > 7) {
+                    throw new IllegalArgumentException("Invalid FEN placement: " + fen);
+                }
+                ChessGame.TeamColor color = piece < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                putPiece((row << 3) | col, ChessPiece.of(color, PIECE_TYPES[piece % 6]));
+                col++;
+            }
+            if (col > 8) {
+                throw new IllegalArgumentException("Invalid FEN placement: " + fen);
+            }
+        }
+        if (row != 0 || col != 8) {
+            throw new IllegalArgumentException("Invalid FEN placement: " + fen);
+        }
+        return index;
+    }
+
+    int readFenCastling(String fen, int index) {
+        int rights = CastlingRights.NONE;
+        int end = skipFenField(fen, index);
+        if (!fen.startsWith("-", index)) {
+            for (int i = index; i < end; i++) {
+                int right = FEN_CASTLING.indexOf(fen.charAt(i));
+                if (right < 0) {
+                    throw new IllegalArgumentException("Invalid FEN castling rights: " + fen);
+                }
+                rights |= 1 << right;
+            }
+        }
+        castlingRights = rights;
+        return end;
+    }
+
+    int readFenEnPassant(String fen, int index) {
+        int end = skipFenField(fen, index);
+        enPassantSquare = -1;
+        if (fen.startsWith("-", index) || index >= end) {
+            return end;
+        }
+        if (end - index != 2) {
+            throw new IllegalArgumentException("Invalid FEN en passant square: " + fen);
+        }
+        int col = fen.charAt(index) - 'a';
+        int row = fen.charAt(index + 1) - '1';
+        if (col < 0 || col > 7 || (row != 2 && row != 5)) {
+            throw new IllegalArgumentException("Invalid FEN en passant square: " + fen);
+        }
+        // Only keep the square if a pawn could take it, as makeMove does, so keys match
+        int square = (row << 3) | col;
+        int pushedTo = row == 2 ? square + 8 : square - 8;
+        ChessGame.TeamColor pushed = row == 2 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        if (ChessPiece.of(pushed, ChessPiece.PieceType.PAWN).equals(getPiece(pushedTo))
+                && canCaptureEnPassant(pushedTo, pushed)) {
+            enPassantSquare = square;
+        }
+        return end;
+    }
+
+    static int skipFenField(String fen, int index) {
+        while (index < fen.length() && fen.charAt(index) != ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Makes the board read-only so it can be shared between threads: any change throws
+     * IllegalStateException, and nothing about the board is computed lazily any more. Freeze a
+     * board before other threads can see it.
+     *
+     * @return this board
+     */
+    public ChessBoard freeze() {
+        reindex();
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("A frozen board cannot be changed; change a copy of it");
+        }
+    }
+
+    /**
+     * Copies the board, never changing this one. A copy of a frozen board shares its rows of
+     * pieces until it changes one, so a copy that only a few moves are made on clones only the
+     * rows those moves touch; any number of threads may copy a frozen board at once. A board
+     * that is not frozen has its rows cloned, and must not be changed while it is copied.
+     *
+     * @return a board that is not frozen, with the same pieces, castling rights and en passant square
+     */
     public ChessBoard copy() {
         ChessBoard newBoard = new ChessBoard();
-        newBoard.board = new ChessPiece[8][8];
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if (this.board[i][j] != null) {
-                    newBoard.board[i][j] = this.board[i][j].copy();
-                }
+        newBoard.board = this.board.clone();
+        if (frozen) {
+            // Pieces are immutable and a frozen board never writes, so only the copy clones on write
+            newBoard.sharedRows = ALL_ROWS;
+        } else {
+            for (int row = 0; row < 8; row++) {
+                newBoard.board[row] = this.board[row].clone();
             }
         }
+        newBoard.castlingRights = this.castlingRights;
+        newBoard.enPassantSquare = this.enPassantSquare;
+        if (indexedBoard == board) {
+            newBoard.bitboards = this.bitboards.copy();
+            newBoard.pieceKey = this.pieceKey;
+            newBoard.openingScore = this.openingScore;
+            newBoard.endgameScore = this.endgameScore;
+            newBoard.phase = this.phase;
+            newBoard.indexedBoard = newBoard.board;
+        }
+        // Otherwise the copy indexes its own pieces on first use
         return newBoard;
     }
 
+    /**
+     * Boards are equal when the same pieces stand on the same squares; castling rights and the
+     * en passant square are history, not placement, and are left out
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -158,7 +648,8 @@ public void makeMove(ChessMove move) {
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        reindex();
+        return Long.hashCode(pieceKey);
     }
 
     @Override
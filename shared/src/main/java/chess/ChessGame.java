@@ -1,9 +1,13 @@
 package chess;
 
+import chess.rules.AttackTables;
+import chess.rules.LegalMoveCache;
+import chess.rules.PackedMove;
 import com.google.gson.Gson;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 
@@ -15,16 +19,83 @@ import java.util.Objects;
  */
 public class ChessGame {
 
-    public Boolean gameOver = false;
+    private Boolean gameOver = false;
     private TeamColor teamTurn;
-    private ChessBoard board = new ChessBoard();
+    private ChessBoard board;
+    private final PositionHistory history;
+    private int fullmoveNumber;
+    // The position the history starts from, so the moves in it can be replayed
+    private String startFen;
+    private transient boolean frozen;
+    // Where legal moves are looked up; bulk jobs give their games a private one
+    private transient LegalMoveCache moveCache = LegalMoveCache.SHARED;
 
 
     public ChessGame() {
         //White goes first
-        this.teamTurn = TeamColor.WHITE;
-        this.board.resetBoard();
+        this(startingBoard(), TeamColor.WHITE, 0, 1);
+    }
+
+    // Works only through the board and static helpers, so no overridable method sees a half-built game
+    private ChessGame(ChessBoard board, TeamColor teamTurn, int halfmoveClock, int fullmoveNumber) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.fullmoveNumber = fullmoveNumber;
+        this.history = new PositionHistory();
+        this.history.reset(board.getZobristKey() ^ Zobrist.sideKey(teamTurn), halfmoveClock);
+        this.startFen = fen(board, teamTurn, halfmoveClock, fullmoveNumber);
+    }
+
+    private static ChessBoard startingBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        return board;
+    }
+
+    private ChessGame(ChessGame other) {
+        this.gameOver = other.gameOver;
+        this.teamTurn = other.teamTurn;
+        this.board = other.board.copy();
+        this.history = other.history.copy();
+        this.fullmoveNumber = other.fullmoveNumber;
+        this.startFen = other.startFen;
+        this.moveCache = other.moveCache;
+    }
+
+    /**
+     * Copies the game, so a move can be made on the copy while others go on reading this one.
+     * This game is never changed by copying it. The copy of a frozen game shares its rows of
+     * pieces until a move changes them, so the cost of a copy is mostly the move history it carries.
+     *
+     * @return a game that is not frozen, with the same position, turn, history and game over flag
+     */
+    public ChessGame copy() {
+        return new ChessGame(this);
+    }
 
+    /**
+     * Makes the game read-only so it can be shared between threads, e.g. as the stored state of
+     * a game that moves replace with a changed copy. Making a move or setting the turn, board or
+     * game over flag afterwards throws IllegalStateException. Freeze a game before other threads
+     * can see it.
+     *
+     * @return this game
+     */
+    public ChessGame freeze() {
+        board.freeze();
+        history().freeze();
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("A frozen game cannot be changed; change a copy of it");
+        }
     }
 
     /**
@@ -41,7 +112,9 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
+        checkNotFrozen();
         teamTurn = team;
+        resetHistory(0);
     }
 
     /**
@@ -61,20 +134,20 @@ public class ChessGame {
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = board.getPiece(startPosition);
-        Collection<ChessMove> ruleValid = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> outOfCheck = new ArrayList<>();
-
-        for (ChessMove move : ruleValid) {
-            ChessGame newGame = new ChessGame();
-            newGame.setTeamTurn(piece.getTeamColor());
-            newGame.setBoard(this.board.copy());
-            newGame.board.makeMove(move);
-            if (!newGame.isInCheck(piece.getTeamColor())) {
-                outOfCheck.add(move);
-            }
+        if (piece == null) {
+            return null;
         }
+        return moveCache.lookup(board, piece.getTeamColor()).movesFrom(Bitboards.square(startPosition));
+    }
 
-        return outOfCheck;
+    /**
+     * Gets every valid move for a team
+     *
+     * @param teamColor the team to get valid moves for
+     * @return Set of valid moves for every piece on that team
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        return moveCache.lookup(board, teamColor).moves();
     }
 
     /**
@@ -84,7 +157,7 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-
+        checkNotFrozen();
         try {
             Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
             ChessPiece movingPiece = this.board.getPiece(move.getStartPosition());
@@ -101,9 +174,15 @@ public class ChessGame {
             }
 
             //make move
-            this.board.makeMove(move);
+            MoveUndo undo = this.board.makeMove(move);
             // Next team's turn
             this.teamTurn = (this.teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+            boolean irreversible = undo.capturedPiece() != null
+                    || movingPiece.getPieceType() == ChessPiece.PieceType.PAWN;
+            history().push(getZobristKey(), PackedMove.fromChessMove(move), irreversible);
+            if (teamTurn == TeamColor.WHITE) {
+                fullmoveNumber++;
+            }
 
         } catch (Exception e) {
             throw new InvalidMoveException("Cannot Make Move: " + e.getMessage());
@@ -117,47 +196,15 @@ public class ChessGame {
      * @param teamColor which team to check for check
      * @return True if the specified team is in check
      */
-   public boolean isInCheck(TeamColor teamColor) {
-    ChessPosition kingPosition = null;
-    ArrayList<ChessPosition> enemyPositions = new ArrayList<>();
-
-    // Find king and enemy positions
-    for (int i = 1; i < 9; i++) {
-        for (int j = 1; j < 9; j++) {
-            ChessPosition pos = new ChessPosition(i, j);
-            ChessPiece piece = board.getPiece(pos);
-            if (piece == null) {
-                continue;
-            }
-
-            if (piece.getPieceType() == ChessPiece.PieceType.KING && piece.getTeamColor() == teamColor) {
-                kingPosition = pos;
-            } else if (piece.getTeamColor() != teamColor) {
-                enemyPositions.add(pos);
-            }
-        }
-    }
-
-    if (kingPosition == null) {
-        return false;
-    }
-
-    // Add all enemy moves to arrayList
-    Collection<ChessMove> allEnemyMoves = new ArrayList<>();
-    for (ChessPosition enemyPiece : enemyPositions) {
-        allEnemyMoves.addAll(board.getPiece(enemyPiece).pieceMoves(board, enemyPiece));
-    }
-
-    // If any enemy moves have an end position on the king, return true, else false
-    for (ChessMove enemyMove : allEnemyMoves) {
-        if (enemyMove.getEndPosition().equals(kingPosition)) {
-            return true;
+    public boolean isInCheck(TeamColor teamColor) {
+        Bitboards bitboards = board.getBitboards();
+        int kingSquare = bitboards.kingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false;
         }
+        return AttackTables.isSquareAttacked(bitboards, kingSquare, opponent(teamColor));
     }
 
-    return false;
-}
-
     /**
      * Determines if the given team is in checkmate
      *
@@ -165,8 +212,8 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        Collection<ChessMove> teamMoves = teamMoves(teamColor);
-        return teamMoves.isEmpty() && isInCheck(teamColor);
+        LegalMoveCache.Entry moves = moveCache.lookup(board, teamColor);
+        return moves.isInCheck() && !moves.hasLegalMove();
     }
 
     /**
@@ -177,28 +224,53 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        Collection<ChessMove> teamMoves = teamMoves(teamColor);
-        return teamMoves.isEmpty() && !isInCheck(teamColor);
+        LegalMoveCache.Entry moves = moveCache.lookup(board, teamColor);
+        return !moves.isInCheck() && !moves.hasLegalMove();
+    }
+
+    /**
+     * Works out check, checkmate, stalemate and draws by repetition, the fifty-move rule or
+     * insufficient material for the team whose turn it is in one pass, rather than generating
+     * the team's moves once per question
+     *
+     * @return the status of the team to move
+     */
+    public GameStatus evaluateStatus() {
+        LegalMoveCache.Entry moves = moveCache.lookup(board, teamTurn);
+        return GameStatus.of(this, moves.isInCheck(), moves.moveCount());
+    }
+
+    /**
+     * Sets where this game looks up legal moves. Jobs that pass through many positions only
+     * once, such as importing PGN, use a private cache so they do not evict the positions of
+     * live games from LegalMoveCache.SHARED.
+     *
+     * @param moveCache the cache to use; games start with LegalMoveCache.SHARED
+     */
+    public void setMoveCache(LegalMoveCache moveCache) {
+        checkNotFrozen();
+        this.moveCache = moveCache;
+    }
+
+    public LegalMoveCache getMoveCache() {
+        return moveCache;
     }
 
     public void setGameOver(boolean gameOver) {
+        checkNotFrozen();
         this.gameOver = gameOver;
     }
 
+    /**
+     * @return True if the game has been marked as finished
+     */
+    public boolean isGameOver() {
+        return Boolean.TRUE.equals(gameOver);
+    }
 
-    private Collection<ChessMove> teamMoves(TeamColor teamColor) {
-        Collection<ChessMove> teamMoves = new ArrayList<>();
-        for (int i = 1; i < 9; i++) {
-            for (int j = 1; j < 9; j++) {
-                ChessPosition pos = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                        teamMoves.addAll(validMoves(pos));
-                    }
 
-            }
-        }
-        return teamMoves;
+    private static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
@@ -207,7 +279,9 @@ public class ChessGame {
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
+        checkNotFrozen();
         this.board = board;
+        resetHistory(0);
     }
 
     /**
@@ -219,6 +293,121 @@ public class ChessGame {
         return board;
     }
 
+    /**
+     * Gets the Zobrist key of the position: the board's key plus the side to move
+     *
+     * @return a 64-bit hash that is equal for games with the same position and turn
+     */
+    public long getZobristKey() {
+        return board.getZobristKey() ^ Zobrist.sideKey(teamTurn);
+    }
+
+    // A history read back from JSON holds only its moves until they are replayed from the start position
+    private PositionHistory history() {
+        if (!history.isReplayed()) {
+            history.replay(startFen);
+        }
+        return history;
+    }
+
+    private void resetHistory(int halfmoveClock) {
+        history.reset(getZobristKey(), halfmoveClock);
+        startFen = toFen();
+    }
+
+    /**
+     * @return the positions this game has passed through since its board and turn were last set
+     */
+    public PositionHistory getHistory() {
+        return history();
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return the position, in Forsyth-Edwards Notation, that the moves in the history start from
+     */
+    public String getStartFen() {
+        return startFen;
+    }
+
+    /**
+     * @return the moves made since the board and turn were last set, oldest first
+     */
+    public List<ChessMove> getMoveHistory() {
+        PositionHistory positions = history();
+        List<ChessMove> moves = new ArrayList<>(positions.moveCount());
+        for (int i = 0; i < positions.moveCount(); i++) {
+            moves.add(PackedMove.toChessMove(positions.move(i)));
+        }
+        return moves;
+    }
+
+    /**
+     * Reads a game from Forsyth-Edwards Notation
+     *
+     * @param fen all six fields, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+     *            missing trailing fields take their starting values
+     * @return a game at that position
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        int index = board.readFenPlacement(fen, 0);
+        TeamColor turn = TeamColor.WHITE;
+        if (index + 1 < fen.length()) {
+            char side = fen.charAt(index + 1);
+            if ((side != 'w' && side != 'b') || ChessBoard.skipFenField(fen, index + 1) != index + 2) {
+                throw new IllegalArgumentException("Invalid FEN side to move: " + fen);
+            }
+            turn = side == 'w' ? TeamColor.WHITE : TeamColor.BLACK;
+            index += 2;
+        }
+        index = board.readFenCastling(fen, index + 1);
+        index = board.readFenEnPassant(fen, index + 1);
+        int halfmoveClock = 0;
+        int fullmove = 1;
+        try {
+            if (index + 1 < fen.length()) {
+                int end = ChessBoard.skipFenField(fen, index + 1);
+                halfmoveClock = Integer.parseInt(fen, index + 1, end, 10);
+                index = end;
+            }
+            if (index + 1 < fen.length()) {
+                fullmove = Integer.parseInt(fen, index + 1, ChessBoard.skipFenField(fen, index + 1), 10);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid FEN move counters: " + fen);
+        }
+
+        return new ChessGame(board, turn, halfmoveClock, fullmove);
+    }
+
+    /**
+     * @return the position in Forsyth-Edwards Notation, e.g.
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1". Castling rights are the ones the
+     * board can still use, and an en passant square is only given when a pawn could take it.
+     */
+    public String toFen() {
+        return fen(board, teamTurn, history().halfmoveClock(), fullmoveNumber);
+    }
+
+    private static String fen(ChessBoard board, TeamColor teamTurn, int halfmoveClock, int fullmoveNumber) {
+        StringBuilder fen = new StringBuilder(90);
+        board.appendFenPlacement(fen);
+        fen.append(teamTurn == TeamColor.BLACK ? " b " : " w ");
+        board.appendFenCastling(fen);
+        fen.append(' ');
+        board.appendFenEnPassant(fen);
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
     public String toJson() {
         return new Gson().toJson(this);
     }
@@ -232,6 +421,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, board);
+        // Boards hash their piece placement only, to stay consistent with equals
+        return 31 * board.hashCode() + Objects.hashCode(teamTurn);
     }
 }
@@ -14,6 +14,17 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
+    // One shared instance per team and piece type, indexed like Bitboards
+    private static final ChessPiece[] PIECES = new ChessPiece[Bitboards.PIECE_KINDS];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[Bitboards.index(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
@@ -22,19 +33,29 @@ public class ChessPiece {
         this.type = type;
     }
 
-    private MoveCalculator initializeMoveRules(PieceType type) {
+    /**
+     * Gets the shared instance for a team and piece type rather than allocating a new piece
+     *
+     * @return a piece equal to new ChessPiece(pieceColor, type)
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[Bitboards.index(pieceColor, type)];
+    }
+
+    private static MoveCalculator moveRules(PieceType type) {
         return switch (type) {
-            case KING -> new KingMovesCalculator();
-            case QUEEN -> new QueenMovesCalculator();
-            case BISHOP -> new BishopMovesCalculator();
-            case KNIGHT -> new KnightMovesCalculator();
-            case ROOK -> new RookMovesCalculator();
-            case PAWN -> new PawnMovesCalculator();
+            case KING -> KingMovesCalculator.INSTANCE;
+            case QUEEN -> QueenMovesCalculator.INSTANCE;
+            case BISHOP -> BishopMovesCalculator.INSTANCE;
+            case KNIGHT -> KnightMovesCalculator.INSTANCE;
+            case ROOK -> RookMovesCalculator.INSTANCE;
+            case PAWN -> PawnMovesCalculator.INSTANCE;
         };
     }
 
     public ChessPiece copy() {
-        return new ChessPiece(this.pieceColor, this.type);
+        // Pieces are immutable, so a copy can be the same object
+        return this;
     }
 
     /**
@@ -71,8 +92,17 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        MoveCalculator moves = initializeMoveRules(this.type);
-        return moves.pieceMoves(board, myPosition);
+        return moveRules(this.type).pieceMoves(board, myPosition);
+    }
+
+    /**
+     * Same as pieceMoves, but adds the moves to a caller-provided collection so one buffer
+     * can be reused across pieces
+     *
+     * @param moves collection the moves are added to
+     */
+    public void pieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
+        moveRules(this.type).pieceMoves(board, myPosition, moves);
     }
 
 
@@ -90,7 +120,8 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        // Same value as Objects.hash(pieceColor, type) without the varargs array
+        return 31 * (31 + Objects.hashCode(pieceColor)) + Objects.hashCode(type);
     }
 
     @Override
@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,6 +8,15 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    // One shared instance per square, indexed like Bitboards (0 is a1, 63 is h8)
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -19,6 +26,26 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a square rather than allocating a new position.
+     * Positions off the board are still created fresh.
+     *
+     * @return a position equal to new ChessPosition(row, col)
+     */
+    public static ChessPosition of(int row, int col) {
+        if (Bitboards.isOnBoard(row, col)) {
+            return SQUARES[Bitboards.square(row, col)];
+        }
+        return new ChessPosition(row, col);
+    }
+
+    /**
+     * @return the shared instance for a square index (0-63)
+     */
+    public static ChessPosition fromSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -76,7 +103,8 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        // Same value as Objects.hash(row, col) without boxing both fields into an array
+        return 31 * (31 + row) + col;
     }
 
     @Override
@@ -0,0 +1,72 @@
+package chess;
+
+/**
+ * The state of a game for the team whose turn it is, as worked out by ChessGame.evaluateStatus
+ *
+ * @param teamToMove     the team whose turn it is
+ * @param inCheck        True if that team's king is attacked
+ * @param legalMoveCount how many legal moves that team has
+ * @param repetitions    how many times the current position has occurred, counting this time
+ * @param halfmoveClock  moves made since the last capture or pawn move
+ * @param insufficientMaterial True if neither team has the pieces left to checkmate
+ */
+public record GameStatus(ChessGame.TeamColor teamToMove, boolean inCheck, int legalMoveCount, int repetitions,
+                         int halfmoveClock, boolean insufficientMaterial) {
+
+    /**
+     * Builds the status of the team to move from what generating its moves found, taking the
+     * repetition count, halfmove clock and material from the game. Every way of evaluating a
+     * game's status goes through here, so they cannot disagree.
+     *
+     * @param inCheck        True if the team to move is in check
+     * @param legalMoveCount how many legal moves the team to move has
+     */
+    public static GameStatus of(ChessGame game, boolean inCheck, int legalMoveCount) {
+        PositionHistory history = game.getHistory();
+        return new GameStatus(game.getTeamTurn(), inCheck, legalMoveCount, history.repetitions(),
+                history.halfmoveClock(), game.getBoard().hasInsufficientMaterial());
+    }
+
+    /**
+     * @return True if the team to move is in check and cannot get out of it
+     */
+    public boolean isCheckmate() {
+        return inCheck && legalMoveCount == 0;
+    }
+
+    /**
+     * @return True if the team to move is not in check but has no legal move
+     */
+    public boolean isStalemate() {
+        return !inCheck && legalMoveCount == 0;
+    }
+
+    /**
+     * @return True if the current position has now occurred three times
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitions >= 3;
+    }
+
+    /**
+     * @return True if fifty moves by each team have passed without a capture or pawn move.
+     * A checkmate delivered on the last of those moves still stands.
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= 100 && !isCheckmate();
+    }
+
+    /**
+     * @return True if the game is drawn by stalemate, repetition, the fifty-move rule or insufficient material
+     */
+    public boolean isDraw() {
+        return isStalemate() || isThreefoldRepetition() || isFiftyMoveDraw() || insufficientMaterial;
+    }
+
+    /**
+     * @return True if the game cannot continue
+     */
+    public boolean isGameOver() {
+        return legalMoveCount == 0 || isDraw();
+    }
+}
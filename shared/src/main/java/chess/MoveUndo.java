@@ -0,0 +1,16 @@
+package chess;
+
+/**
+ * Everything ChessBoard needs to take back a move made with makeMove
+ *
+ * @param from            the square the piece moved from, as a Bitboards square index
+ * @param to              the square the piece moved to
+ * @param movedPiece      the piece that moved, as it was before any promotion
+ * @param capturedPiece   the piece that was captured, or null if nothing was
+ * @param captureSquare   where the captured piece stood; differs from to for en passant
+ * @param castlingRights  the board's castling rights before the move
+ * @param enPassantSquare the board's en passant square before the move
+ */
+public record MoveUndo(int from, int to, ChessPiece movedPiece, ChessPiece capturedPiece, int captureSquare,
+                       int castlingRights, int enPassantSquare) {
+}
@@ -0,0 +1,180 @@
+package chess;
+
+/**
+ * Material and piece-square values for static evaluation, in centipawns from white's side.
+ * <p>
+ * Each piece is worth its material plus a bonus for the square it stands on, with one set of
+ * values for the opening and one for the endgame. A board keeps the sum of both for all its
+ * pieces up to date as pieces move, like its Zobrist key, along with a game phase that runs
+ * from 24 with all minor and major pieces on the board down to 0 with none. The score of a
+ * position blends the two sums by that phase, so a king is drawn toward the centre only as
+ * the pieces come off.
+ */
+public final class PieceSquareTables {
+
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] OPENING_VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] ENDGAME_VALUES = {0, 940, 340, 300, 520, 120};
+    private static final int[] PHASES = {0, 4, 1, 1, 2, 0};
+
+    // Written as seen from white, rank 8 on the first line and a1 at the start of the last
+    private static final int[] KING_OPENING = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+    private static final int[] PAWN_OPENING = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    // Material plus square bonus, signed for the piece's team, indexed like Bitboards then by square
+    private static final int[][] OPENING = new int[Bitboards.PIECE_KINDS][64];
+    private static final int[][] ENDGAME = new int[Bitboards.PIECE_KINDS][64];
+
+    static {
+        int[][] openingTables = {KING_OPENING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_OPENING};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int piece = Bitboards.index(color, type);
+                int t = type.ordinal();
+                for (int square = 0; square < 64; square++) {
+                    if (color == ChessGame.TeamColor.WHITE) {
+                        // The tables list rank 8 first, so a1 (square 0) is their entry 56
+                        OPENING[piece][square] = OPENING_VALUES[t] + openingTables[t][square ^ 56];
+                        ENDGAME[piece][square] = ENDGAME_VALUES[t] + endgameTables[t][square ^ 56];
+                    } else {
+                        // Black's view of the board is white's flipped top to bottom
+                        OPENING[piece][square] = -OPENING_VALUES[t] - openingTables[t][square];
+                        ENDGAME[piece][square] = -ENDGAME_VALUES[t] - endgameTables[t][square];
+                    }
+                }
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return the opening value of a piece on a square, positive for white and negative for
+     * black, or 0 for an empty square
+     */
+    public static int opening(ChessPiece piece, int square) {
+        if (piece == null) {
+            return 0;
+        }
+        return OPENING[Bitboards.index(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @return the endgame value of a piece on a square, positive for white and negative for
+     * black, or 0 for an empty square
+     */
+    public static int endgame(ChessPiece piece, int square) {
+        if (piece == null) {
+            return 0;
+        }
+        return ENDGAME[Bitboards.index(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @return the material value of a piece type in the opening, without its square; the search
+     * orders captures by it, so move ordering and evaluation agree on what pieces are worth
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return OPENING_VALUES[type.ordinal()];
+    }
+
+    /**
+     * @return how much the piece counts toward the game phase, or 0 for an empty square
+     */
+    public static int phase(ChessPiece piece) {
+        return piece == null ? 0 : PHASES[piece.getPieceType().ordinal()];
+    }
+
+    /**
+     * Blends opening and endgame sums by the game phase
+     *
+     * @param phase from MAX_PHASE for a full set of pieces down to 0; more is treated as MAX_PHASE
+     * @return the score in centipawns, positive when white is better
+     */
+    public static int blend(int opening, int endgame, int phase) {
+        int p = Math.min(phase, MAX_PHASE);
+        return (opening * p + endgame * (MAX_PHASE - p)) / MAX_PHASE;
+    }
+}
@@ -0,0 +1,260 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Zobrist keys of every position in a game and the moves between them, with a running
+ * count of how often each position has occurred and the halfmove clock for the fifty-move rule.
+ * <p>
+ * A capture or pawn move can never be undone, so no position before one can occur again.
+ * Counts therefore only cover positions since the last such move, and looking up how often
+ * the current position has occurred is a single map lookup.
+ * <p>
+ * In JSON a history is only its moves. The keys, counts and halfmove clock are derived from
+ * them, so ChessGame rebuilds them by replaying the moves from its start position.
+ */
+@JsonAdapter(PositionHistory.JsonFormat.class)
+public class PositionHistory {
+
+    // Null for a history read back from JSON until it is replayed
+    private long[] keys = new long[64];
+    // moves[i] leads from position i to position i + 1, packed by PackedMove
+    private int[] moves = new int[64];
+    private int size;
+    // Index of the first position after the last capture or pawn move
+    private int reversibleStart;
+    private int halfmoveClock;
+    // Rebuilt from keys on first use, e.g. after the history is read back from JSON
+    private transient Map<Long, Integer> counts;
+    private transient boolean frozen;
+
+    public PositionHistory() {
+        //Empty Constructor
+    }
+
+    /**
+     * @return an independent history with the same positions and moves; the repetition counts
+     * are rebuilt on first use rather than copied
+     */
+    public PositionHistory copy() {
+        PositionHistory copy = new PositionHistory();
+        copy.keys = keys == null ? null : Arrays.copyOf(keys, Math.max(size + 1, 64));
+        copy.moves = Arrays.copyOf(moves, Math.max(size, 64));
+        copy.size = size;
+        copy.reversibleStart = reversibleStart;
+        copy.halfmoveClock = halfmoveClock;
+        return copy;
+    }
+
+    /**
+     * Forgets every position and starts again from the given one
+     *
+     * @param key           the key of the starting position
+     * @param halfmoveClock moves made since the last capture or pawn move before this position
+     */
+    public void reset(long key, int halfmoveClock) {
+        checkNotFrozen();
+        if (keys == null) {
+            keys = new long[64];
+        }
+        size = 0;
+        reversibleStart = 0;
+        counts = new HashMap<>();
+        this.halfmoveClock = halfmoveClock;
+        append(key);
+    }
+
+    /**
+     * Records the position reached by a move
+     *
+     * @param key          the key of the new position
+     * @param move         the move, packed by PackedMove
+     * @param irreversible True if the move was a capture or pawn move
+     */
+    public void push(long key, int move, boolean irreversible) {
+        checkNotFrozen();
+        if (size - 1 == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size - 1);
+            moves = grown;
+        }
+        moves[size - 1] = move;
+        if (irreversible) {
+            halfmoveClock = 0;
+            reversibleStart = size;
+            counts = new HashMap<>();
+        } else {
+            halfmoveClock++;
+        }
+        append(key);
+    }
+
+    private void append(long key) {
+        if (size == keys.length) {
+            long[] grown = new long[size * 2];
+            System.arraycopy(keys, 0, grown, 0, size);
+            keys = grown;
+        }
+        keys[size++] = key;
+        counts().merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * @return False for a history read back from JSON that still holds only its moves
+     */
+    boolean isReplayed() {
+        return keys != null;
+    }
+
+    /**
+     * Rebuilds the keys, counts and halfmove clock of a history read back from JSON by making
+     * its moves again from the position it started at
+     *
+     * @param startFen the position the first move was made from
+     * @throws IllegalStateException if the moves cannot be made from that position
+     */
+    void replay(String startFen) {
+        ChessGame start = ChessGame.fromFen(startFen);
+        ChessBoard board = start.getBoard();
+        ChessGame.TeamColor turn = start.getTeamTurn();
+        int[] recorded = moves;
+        int count = size - 1;
+        moves = new int[Math.max(count, 64)];
+        reset(start.getZobristKey(), start.getHistory().halfmoveClock());
+        for (int i = 0; i < count; i++) {
+            MoveUndo undo = board.makeMove(recorded[i]);
+            if (undo == null) {
+                throw new IllegalStateException("Move " + i + " of the history does not replay from " + startFen);
+            }
+            turn = turn == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            push(board.getZobristKey() ^ Zobrist.sideKey(turn), recorded[i], undo.capturedPiece() != null
+                    || undo.movedPiece().getPieceType() == ChessPiece.PieceType.PAWN);
+        }
+    }
+
+    /**
+     * Makes the history read-only, building the repetition counts now so that reading it no
+     * longer changes anything. Pushing or resetting it afterwards throws IllegalStateException.
+     */
+    public void freeze() {
+        counts();
+        frozen = true;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("A frozen history cannot be changed; change a copy of it");
+        }
+    }
+
+    private Map<Long, Integer> counts() {
+        if (counts == null) {
+            counts = new HashMap<>();
+            for (int i = reversibleStart; i < size; i++) {
+                counts.merge(keys[i], 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return how many times the current position has occurred, counting this time
+     */
+    public int repetitions() {
+        return size == 0 ? 0 : counts().getOrDefault(keys[size - 1], 0);
+    }
+
+    /**
+     * @return moves made since the last capture or pawn move
+     */
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of positions recorded, including the starting one
+     */
+    public int size() {
+        return size;
+    }
+
+    public long key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the number of moves recorded, one less than the number of positions
+     */
+    public int moveCount() {
+        return size - 1;
+    }
+
+    /**
+     * @return the move leading from position index to the next, packed by PackedMove
+     */
+    public int move(int index) {
+        return moves[index];
+    }
+
+    // Writes only the moves that were made, not the spare capacity or anything derived from them
+    static final class JsonFormat extends TypeAdapter<PositionHistory> {
+
+        @Override
+        public void write(JsonWriter out, PositionHistory history) throws IOException {
+            if (history == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject().name("moves").beginArray();
+            for (int i = 0; i < history.moveCount(); i++) {
+                out.value(history.moves[i]);
+            }
+            out.endArray().endObject();
+        }
+
+        @Override
+        public PositionHistory read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            int[] moves = new int[64];
+            int count = 0;
+            // Histories written before only the moves were kept carry spare capacity and their size
+            int size = -1;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "moves" -> {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            if (count == moves.length) {
+                                moves = Arrays.copyOf(moves, count * 2);
+                            }
+                            moves[count++] = in.nextInt();
+                        }
+                        in.endArray();
+                    }
+                    case "size" -> size = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            PositionHistory history = new PositionHistory();
+            history.keys = null;
+            history.moves = moves;
+            history.size = size > 0 ? size : count + 1;
+            return history;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ * <p>
+ * A position's key is the XOR of one key per piece on its square, one key per castling
+ * right still held, a key for the file of any en passant square, and the side-to-move key
+ * when black is to move. Moving a piece only XORs out the old square and XORs in the
+ * new one, so boards keep their key up to date as they change. The keys come from a fixed
+ * seed, so a position has the same key in every JVM.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_C4E5_5B0A_4D1L;
+
+    private static final long[][] PIECE_KEYS = new long[Bitboards.PIECE_KINDS][64];
+    private static final long SIDE_TO_MOVE;
+    private static final long[] CASTLING_KEYS = new long[CastlingRights.ALL + 1];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int piece = 0; piece < Bitboards.PIECE_KINDS; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_KEYS[piece][square] = random.nextLong();
+            }
+        }
+        SIDE_TO_MOVE = random.nextLong();
+        long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 0; rights <= CastlingRights.ALL; rights++) {
+            for (int right = 0; right < 4; right++) {
+                if ((rights & 1 << right) != 0) {
+                    CASTLING_KEYS[rights] ^= rightKeys[right];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_KEYS[file] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece standing on a square, or 0 for an empty square
+     */
+    public static long pieceKey(ChessPiece piece, int square) {
+        if (piece == null) {
+            return 0;
+        }
+        return PIECE_KEYS[Bitboards.index(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @return the key XORed in when it is the given team's turn
+     */
+    public static long sideKey(ChessGame.TeamColor teamTurn) {
+        return teamTurn == ChessGame.TeamColor.BLACK ? SIDE_TO_MOVE : 0;
+    }
+
+    /**
+     * @return the key for a set of CastlingRights
+     */
+    public static long castlingKey(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    /**
+     * @return the key for an en passant square, or 0 if there is none (-1)
+     */
+    public static long enPassantKey(int square) {
+        return square < 0 ? 0 : EN_PASSANT_KEYS[square & 7];
+    }
+
+    /**
+     * Computes a board's key from scratch, for checking the one it keeps up to date
+     */
+    public static long keyOf(ChessBoard board) {
+        return keyOf(board.getBoard()) ^ castlingKey(board.getCastlingRights())
+                ^ enPassantKey(board.getEnPassantSquare());
+    }
+
+    /**
+     * Computes the key of a piece placement alone by looking at every square
+     */
+    public static long keyOf(ChessPiece[][] board) {
+        long key = 0;
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                key ^= pieceKey(board[i][j], (i << 3) | j);
+            }
+        }
+        return key;
+    }
+}
@@ -0,0 +1,182 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A computer player: finds a move for the side to move within a time limit.
+ * <p>
+ * bestMove searches on the calling thread. Servers should use bestMoveAsync, which copies the
+ * position right away and searches on the engine's own threads, so the caller is never blocked.
+ * Either way a search waits for room in the global budget in SearchThreads before it starts,
+ * and by default bestMoveAsync queues on a pool no bigger than that budget.
+ * Every search made through one engine shares its transposition table, so one engine serving
+ * several games lets each reuse what the others have already searched.
+ * <p>
+ * An engine built with more than one thread runs a Lazy SMP search: helper threads search the
+ * same position, each on its own copy of the board, and share only the transposition table.
+ * What they store lets the main thread cut off or order moves sooner, and the main thread's
+ * result is the one played. Helpers are taken from the global budget in SearchThreads, so a
+ * search may get fewer of them than asked for when the server is busy.
+ * <p>
+ * An engine given an opening book plays from it without searching while the position is in it.
+ */
+public class Engine {
+
+    public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private final TranspositionTable table;
+    private final Executor executor;
+    private final int maxDepth;
+    private final int threads;
+    private volatile OpeningBook openingBook;
+
+    public Engine() {
+        this(1);
+    }
+
+    /**
+     * @param threads how many threads each search should use, helpers included
+     */
+    public Engine(int threads) {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES), SearchThreads.SEARCHES, Search.MAX_PLY - 1, threads);
+    }
+
+    /**
+     * @param table    the transposition table every search through this engine shares
+     * @param executor where bestMoveAsync runs searches
+     * @param maxDepth the deepest iteration to search, whatever the time limit
+     */
+    public Engine(TranspositionTable table, Executor executor, int maxDepth) {
+        this(table, executor, maxDepth, 1);
+    }
+
+    /**
+     * @param table    the transposition table every search through this engine shares
+     * @param executor where bestMoveAsync runs searches
+     * @param maxDepth the deepest iteration to search, whatever the time limit
+     * @param threads  how many threads each search should use, helpers included
+     */
+    public Engine(TranspositionTable table, Executor executor, int maxDepth, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("An engine needs at least one thread: " + threads);
+        }
+        this.table = table;
+        this.executor = executor;
+        this.maxDepth = Math.min(maxDepth, Search.MAX_PLY - 1);
+        this.threads = threads;
+    }
+
+    /**
+     * @return how many threads each search asks for, helpers included
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param openingBook the book to play from before searching, or null to always search
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    /**
+     * Finds a move for the side to move, searching on the calling thread
+     *
+     * @param game      the position; it is not changed
+     * @param timeLimit how long to search for
+     * @return the move chosen, or null if the side to move has no legal move
+     */
+    public ChessMove bestMove(ChessGame game, Duration timeLimit) {
+        return search(game, timeLimit).bestMove();
+    }
+
+    /**
+     * Same as bestMove, with the score, depth reached and node count as well. A book move has a
+     * depth and node count of 0.
+     */
+    public SearchResult search(ChessGame game, Duration timeLimit) {
+        ChessMove bookMove = bookMove(game);
+        if (bookMove != null) {
+            return new SearchResult(bookMove, 0, 0, 0);
+        }
+        table.newSearch();
+        return run(searches(game, deadline(timeLimit)));
+    }
+
+    /**
+     * Same as bestMove, but searching on the engine's executor. The position is copied before
+     * this returns, so the game may be changed while the search runs.
+     */
+    public CompletableFuture<ChessMove> bestMoveAsync(ChessGame game, Duration timeLimit) {
+        ChessMove bookMove = bookMove(game);
+        if (bookMove != null) {
+            return CompletableFuture.completedFuture(bookMove);
+        }
+        // The clock starts now, so time spent queued for a thread counts against the limit
+        table.newSearch();
+        List<Search> searches = searches(game, deadline(timeLimit));
+        return CompletableFuture.supplyAsync(() -> run(searches).bestMove(), executor);
+    }
+
+    private ChessMove bookMove(ChessGame game) {
+        OpeningBook book = openingBook;
+        return book == null ? null : book.pick(game);
+    }
+
+    // The main search first, then one per helper thread, all sharing one stop flag
+    private List<Search> searches(ChessGame game, long deadline) {
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Search> searches = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            searches.add(new Search(game, table, deadline, stop));
+        }
+        return searches;
+    }
+
+    private SearchResult run(List<Search> searches) {
+        int helpers = SearchThreads.acquire(searches.size() - 1);
+        List<CompletableFuture<SearchResult>> helperResults = new ArrayList<>(helpers);
+        try {
+            for (int i = 1; i <= helpers; i++) {
+                Search helper = searches.get(i);
+                // Every other helper starts one iteration deeper, so the threads drift out of step
+                int firstDepth = 1 + i % 2;
+                helperResults.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return helper.run(firstDepth, maxDepth);
+                    } finally {
+                        SearchThreads.release(1);
+                    }
+                }, SearchThreads.HELPERS));
+            }
+            SearchResult result = searches.get(0).run(maxDepth);
+            searches.get(0).stop();
+            // Helpers see the stop flag within a few thousand nodes; wait so the node count is whole
+            long nodes = result.nodes();
+            for (CompletableFuture<SearchResult> helperResult : helperResults) {
+                nodes += helperResult.join().nodes();
+            }
+            return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes);
+        } finally {
+            searches.get(0).stop();
+            SearchThreads.release(1 + helpers - helperResults.size());
+        }
+    }
+
+    private static long deadline(Duration timeLimit) {
+        return System.nanoTime() + timeLimit.toNanos();
+    }
+}
@@ -0,0 +1,56 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+import java.util.Collection;
+
+/**
+ * Static evaluation: who is ahead in a position, without searching any moves.
+ * <p>
+ * The score is material plus piece-square bonuses, blended between opening and endgame values
+ * by how many pieces are left (see PieceSquareTables). Boards keep those sums up to date as
+ * pieces move, so evaluating a position costs the same whatever is on the board and is cheap
+ * enough to run for every spectator on every move.
+ */
+public final class Evaluator {
+
+    private Evaluator() {
+    }
+
+    /**
+     * @return the score of the board in centipawns, positive when white is better
+     */
+    public static int evaluate(ChessBoard board) {
+        return board.getPieceSquareScore();
+    }
+
+    /**
+     * @return the score of the game's current position in centipawns, positive when white is better
+     */
+    public static int evaluate(ChessGame game) {
+        return evaluate(game.getBoard());
+    }
+
+    /**
+     * Scores many games at once, e.g. every game being watched
+     *
+     * @return the score of each game's current position, in the collection's iteration order
+     */
+    public static int[] evaluate(Collection<ChessGame> games) {
+        int[] scores = new int[games.size()];
+        int i = 0;
+        for (ChessGame game : games) {
+            scores[i++] = evaluate(game);
+        }
+        return scores;
+    }
+
+    /**
+     * @return the score of the board from the given team's side, positive when it is better
+     */
+    public static int evaluate(ChessBoard board, ChessGame.TeamColor color) {
+        int score = evaluate(board);
+        return color == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
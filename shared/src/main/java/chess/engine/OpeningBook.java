@@ -0,0 +1,150 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.rules.PackedMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * An opening book read straight from a memory-mapped file.
+ * <p>
+ * The file is an 8-byte header (MAGIC, then VERSION) followed by 16-byte entries sorted by key:
+ * the position's Zobrist key with the side to move (ChessGame.getZobristKey), a PackedMove
+ * without flags and a weight, all big-endian. A lookup binary searches the mapping for the first
+ * entry with the position's key and reads the entries after it. Nothing is copied onto the heap,
+ * the operating system pages the file in as lookups touch it, and any number of threads may
+ * look up at once. OpeningBookBuilder writes the file.
+ */
+public class OpeningBook {
+
+    public static final int MAGIC = 0x43424F4B;
+    public static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int ENTRY_BYTES = 16;
+
+    /**
+     * A book move and how often it should be played, relative to the other moves of its position
+     */
+    public record BookMove(ChessMove move, int weight) {
+    }
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * Maps a book file. The file must not be changed while the book is in use.
+     *
+     * @param path a file written by OpeningBookBuilder, of at most 2 GB
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || (length - HEADER_BYTES) % ENTRY_BYTES != 0
+                    || length > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book, or an unsupported version: " + path);
+            }
+            return new OpeningBook(mapped.slice(HEADER_BYTES, (int) length - HEADER_BYTES));
+        }
+    }
+
+    /**
+     * @return the number of entries, one per position and move
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the book moves for the game's current position. Moves that are not legal there, which
+     * can only come from two positions sharing a key, are left out.
+     *
+     * @return the moves, heaviest first, or an empty list if the position is not in the book
+     */
+    public List<BookMove> moves(ChessGame game) {
+        long key = game.getZobristKey();
+        List<BookMove> moves = new ArrayList<>();
+        Collection<ChessMove> legal = null;
+        for (int i = firstEntry(key); i < size && key(i) == key; i++) {
+            ChessMove move = PackedMove.toChessMove(entries.getInt(i * ENTRY_BYTES + 8));
+            if (legal == null) {
+                legal = game.legalMoves(game.getTeamTurn());
+            }
+            if (legal.contains(move)) {
+                moves.add(new BookMove(move, entries.getInt(i * ENTRY_BYTES + 12)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Same as pick(game, random), with a thread-local random source
+     */
+    public ChessMove pick(ChessGame game) {
+        return pick(game, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Picks one of the position's book moves at random, each in proportion to its weight
+     *
+     * @return the move, or null if the position is not in the book
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        List<BookMove> moves = moves(game);
+        long total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (total <= 0) {
+            return null;
+        }
+        long roll = random.nextLong(total);
+        for (BookMove move : moves) {
+            roll -= move.weight();
+            if (roll < 0) {
+                return move.move();
+            }
+        }
+        return null;
+    }
+
+    private long key(int entry) {
+        return entries.getLong(entry * ENTRY_BYTES);
+    }
+
+    // The first entry whose key is not less than the given key, comparing keys as unsigned
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,105 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.rules.PackedMove;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects positions and moves, e.g. from the opening moves of master games, and writes them
+ * out as an OpeningBook file.
+ * <p>
+ * Adding the same move from the same position again adds to its weight, so a book built from
+ * many games plays popular moves more often.
+ */
+public class OpeningBookBuilder {
+
+    // Position key, then packed move, then total weight
+    private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+
+    /**
+     * Adds weight to a move from the game's current position
+     *
+     * @param game   the position; it is not changed
+     * @param move   a legal move in that position
+     * @param weight how much to add, at least 1
+     */
+    public void add(ChessGame game, ChessMove move, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Book weights must be positive: " + weight);
+        }
+        positions.computeIfAbsent(game.getZobristKey(), key -> new HashMap<>())
+                .merge(PackedMove.fromChessMove(move), weight,
+                        (a, b) -> (int) Math.min((long) a + b, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Adds the first moves of a game with a weight of 1 each, replaying them from the game's start position
+     *
+     * @param game     a game with its move history, e.g. one read by PgnReader; it is not changed
+     * @param maxPlies how many moves from the start to add, counting each side's moves
+     * @throws InvalidMoveException if the history does not replay from the start position
+     */
+    public void addGame(ChessGame game, int maxPlies) throws InvalidMoveException {
+        ChessGame replay = ChessGame.fromFen(game.getStartFen());
+        List<ChessMove> moves = game.getMoveHistory();
+        for (int i = 0; i < Math.min(maxPlies, moves.size()); i++) {
+            add(replay, moves.get(i), 1);
+            replay.makeMove(moves.get(i));
+        }
+    }
+
+    /**
+     * @return the number of entries the book will have, one per position and move
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Integer> moves : positions.values()) {
+            size += moves.size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes the book, replacing the file if it exists
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        }
+    }
+
+    /**
+     * Writes the book to a stream, which is flushed but not closed
+     */
+    public void write(OutputStream out) throws IOException {
+        List<Long> keys = new ArrayList<>(positions.keySet());
+        // OpeningBook binary searches comparing keys as unsigned
+        keys.sort(Long::compareUnsigned);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(OpeningBook.MAGIC);
+        data.writeInt(OpeningBook.VERSION);
+        for (long key : keys) {
+            List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(positions.get(key).entrySet());
+            moves.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed());
+            for (Map.Entry<Integer, Integer> move : moves) {
+                data.writeLong(key);
+                data.writeInt(move.getKey());
+                data.writeInt(move.getValue());
+            }
+        }
+        data.flush();
+    }
+}
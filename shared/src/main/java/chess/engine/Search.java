@@ -0,0 +1,342 @@
+package chess.engine;
+
+import chess.*;
+import chess.rules.LegalMoveGenerator;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One alpha-beta search of one position. Not thread safe; Engine makes one per search and thread.
+ * <p>
+ * Iterative deepening searches depth 1, 2, 3 and so on until time runs out. Results are kept
+ * in a transposition table, which cuts off positions already searched deeply enough by another
+ * path, iteration or search, and supplies the best move found there to try first. The other
+ * moves are ordered captures first (most valuable victim, least valuable attacker), then killer
+ * moves that caused a cutoff at the same ply elsewhere in the tree. At the horizon a quiescence search keeps
+ * resolving captures so a position is never scored in the middle of an exchange.
+ */
+public class Search {
+
+    public static final int MATE = 100_000;
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITY = MATE + 1;
+    // Mates found within MAX_PLY score above this
+    private static final int MATE_BOUND = MATE - MAX_PLY;
+    // How often, in nodes, to look at the clock
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor rootColor;
+    private final TranspositionTable table;
+    private final long deadline;
+    // Set by whoever owns the search to stop it early, e.g. the main thread of a Lazy SMP search
+    private final AtomicBoolean stop;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    // Keys of the game so far and of the current search path, for spotting repetitions
+    private final long[] keys;
+    private final int gameKeys;
+    private final int[] reversibleFrom = new int[MAX_PLY + 1];
+
+    private long nodes;
+    private boolean stopped;
+    private int rootBestMove;
+
+    /**
+     * @param game     the position to search; it is copied, so the game may change afterwards
+     * @param table    the transposition table to read and fill, which may be shared with other searches
+     * @param deadline the System.nanoTime value at which to stop
+     */
+    public Search(ChessGame game, TranspositionTable table, long deadline) {
+        this(game, table, deadline, new AtomicBoolean());
+    }
+
+    /**
+     * Same as above, also stopping as soon as the stop flag is set
+     *
+     * @param stop a flag that may be shared by several searches of the same position
+     */
+    public Search(ChessGame game, TranspositionTable table, long deadline, AtomicBoolean stop) {
+        this.board = game.getBoard().copy();
+        this.table = table;
+        this.deadline = deadline;
+        this.stop = stop;
+        for (int i = 0; i <= MAX_PLY; i++) {
+            moveLists[i] = new MoveList();
+        }
+        PositionHistory history = game.getHistory();
+        int first = Math.max(0, history.size() - 1 - history.halfmoveClock());
+        this.gameKeys = history.size() - first;
+        this.keys = new long[gameKeys + MAX_PLY + 1];
+        for (int i = 0; i < gameKeys; i++) {
+            keys[i] = history.key(first + i);
+        }
+        this.rootColor = game.getTeamTurn();
+    }
+
+    /**
+     * Searches deeper and deeper until the deadline or the maximum depth
+     *
+     * @param maxDepth the deepest iteration to run
+     * @return the result of the deepest iteration that finished
+     */
+    public SearchResult run(int maxDepth) {
+        return run(1, maxDepth);
+    }
+
+    /**
+     * Same as above, but starting at a deeper first iteration. Helper threads start at
+     * different depths so they do not all search the same tree in step.
+     *
+     * @param firstDepth the first iteration to run
+     */
+    public SearchResult run(int firstDepth, int maxDepth) {
+        MoveList rootMoves = new MoveList();
+        new LegalMoveGenerator(board, rootColor).generate(rootMoves);
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(null, 0, 0, 0);
+        }
+        // Any legal move beats none if time runs out during the first iteration
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        long startTime = System.nanoTime();
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            int score = negamax(depth, 0, -INFINITY, INFINITY, rootColor);
+            if (stopped) {
+                break;
+            }
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            // A found mate will not get any better, and a deeper iteration would not finish in the time left
+            if (Math.abs(score) > MATE_BOUND || System.nanoTime() - startTime > (deadline - startTime) / 2) {
+                break;
+            }
+        }
+        return new SearchResult(PackedMove.toChessMove(bestMove), bestScore, completedDepth, nodes);
+    }
+
+    /**
+     * Stops this search and every other search sharing its stop flag
+     */
+    public void stop() {
+        stop.set(true);
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, ChessGame.TeamColor color) {
+        long key = board.getZobristKey() ^ Zobrist.sideKey(color);
+        keys[gameKeys - 1 + ply] = key;
+        if (ply > 0 && isRepetition(ply)) {
+            return 0;
+        }
+        if (depth <= 0) {
+            return quiescence(ply, alpha, beta, color);
+        }
+        if (++nodes % CLOCK_INTERVAL == 0 && (System.nanoTime() > deadline || stop.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        int hashMove = 0;
+        long entry = table.probe(key);
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generator.generate(moves);
+        if (moves.isEmpty()) {
+            return generator.isInCheck() ? -MATE + ply : 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate(color);
+        }
+
+        scoreMoves(moves, ply, ply == 0 && rootBestMove != 0 ? rootBestMove : hashMove);
+        ChessGame.TeamColor opponent = opponent(color);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            reversibleFrom[ply + 1] = isIrreversible(move) ? ply + 1 : reversibleFrom[ply];
+            MoveUndo undo = board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, opponent);
+            board.unmakeMove(undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (!PackedMove.hasFlag(move, PackedMove.CAPTURE) && killers[ply][0] != move) {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = move;
+                }
+                break;
+            }
+        }
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, bound == TranspositionTable.UPPER_BOUND ? 0 : bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    private int quiescence(int ply, int alpha, int beta, ChessGame.TeamColor color) {
+        if (++nodes % CLOCK_INTERVAL == 0 && (System.nanoTime() > deadline || stop.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        boolean inCheck = generator.isInCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            // Standing pat: the side to move need not capture
+            best = evaluate(color);
+            if (best >= beta || ply >= MAX_PLY - 1) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        generator.generate(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate(color);
+        }
+        scoreMoves(moves, ply, 0);
+        ChessGame.TeamColor opponent = opponent(color);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            // Out of check every evasion counts; otherwise only captures and promotions
+            if (!inCheck && !PackedMove.hasFlag(move, PackedMove.CAPTURE) && PackedMove.promotion(move) == null) {
+                continue;
+            }
+            MoveUndo undo = board.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha, opponent);
+            board.unmakeMove(undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private boolean isRepetition(int ply) {
+        int current = gameKeys - 1 + ply;
+        long key = keys[current];
+        // Only positions since the last capture or pawn move can repeat, and only with the same side to move
+        int oldest = reversibleFrom[ply] == 0 ? 0 : gameKeys - 1 + reversibleFrom[ply];
+        for (int i = current - 2; i >= oldest; i -= 2) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isIrreversible(int move) {
+        return PackedMove.hasFlag(move, PackedMove.CAPTURE)
+                || board.getPiece(PackedMove.from(move)).getPieceType() == ChessPiece.PieceType.PAWN;
+    }
+
+    private void scoreMoves(MoveList moves, int ply, int firstMove) {
+        if (orderScores[ply] == null || orderScores[ply].length < moves.size()) {
+            orderScores[ply] = new int[Math.max(moves.size(), 64)];
+        }
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == firstMove) {
+                score = 1_000_000;
+            } else if (PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+                ChessPiece victim = board.getPiece(PackedMove.to(move));
+                // An empty target square is an en passant capture of a pawn
+                int victimValue = PieceSquareTables.value(victim == null ? ChessPiece.PieceType.PAWN
+                        : victim.getPieceType());
+                int attackerValue = PieceSquareTables.value(board.getPiece(PackedMove.from(move)).getPieceType());
+                score = 100_000 + victimValue * 10 - attackerValue / 10;
+            } else if (PackedMove.promotion(move) != null) {
+                score = 90_000 + PieceSquareTables.value(PackedMove.promotion(move));
+            } else if (move == killers[ply][0]) {
+                score = 80_000;
+            } else if (move == killers[ply][1]) {
+                score = 79_000;
+            } else {
+                score = 0;
+            }
+            scores[i] = score;
+        }
+    }
+
+    // Selection sort one step at a time: most nodes cut off after the first few moves
+    private int pickNext(MoveList moves, int ply, int index) {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        moves.set(best, moves.get(index));
+        moves.set(index, move);
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    private int evaluate(ChessGame.TeamColor color) {
+        return Evaluator.evaluate(board, color);
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,15 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * The outcome of a search
+ *
+ * @param bestMove the move the search settled on, or null if the side to move has no legal move
+ * @param score    the score of the position for the side to move, in centipawns; mates are
+ *                 scored near Search.MATE
+ * @param depth    the deepest iteration that finished
+ * @param nodes    the number of positions searched
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes) {
+}
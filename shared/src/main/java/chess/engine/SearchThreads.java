@@ -0,0 +1,136 @@
+package chess.engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The process-wide budget of threads that engine searches may run on at once.
+ * <p>
+ * A search takes one thread for its main line, waiting until one is free if the budget is used
+ * up, then as many Lazy SMP helpers as are left. The total never goes over the limit, so a busy
+ * server queues searches and degrades to single-threaded ones instead of taking every core away
+ * from the threads handling human players. Engine.bestMoveAsync searches on SEARCHES, a pool
+ * with one thread per unit of budget, so queued searches wait in its queue rather than each
+ * parking a thread of its own. The default limit is half the available processors.
+ */
+public final class SearchThreads {
+
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static final Condition released = lock.newCondition();
+    private static int inUse;
+    private static int limit = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Runs the main thread of asynchronous searches, one pool thread per unit of budget
+     */
+    static final ThreadPoolExecutor SEARCHES = new ThreadPoolExecutor(limit, limit, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "chess-engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static final ExecutorService HELPERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "chess-engine-helper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        SEARCHES.allowCoreThreadTimeOut(true);
+    }
+
+    private SearchThreads() {
+    }
+
+    /**
+     * @return the most threads engine searches may use at once
+     */
+    public static int limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes the limit. Searches already running keep the threads they were given; new ones
+     * wait until the total is back under the new limit.
+     *
+     * @param threads the most threads engine searches may use at once, at least 1
+     */
+    public static void setLimit(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread limit must be at least 1: " + threads);
+        }
+        lock.lock();
+        try {
+            // The core size may never exceed the maximum, so change them in the order that keeps that true
+            if (threads > SEARCHES.getMaximumPoolSize()) {
+                SEARCHES.setMaximumPoolSize(threads);
+                SEARCHES.setCorePoolSize(threads);
+            } else {
+                SEARCHES.setCorePoolSize(threads);
+                SEARCHES.setMaximumPoolSize(threads);
+            }
+            limit = threads;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of threads engine searches are using right now
+     */
+    public static int inUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the main thread of a search, waiting until the budget has room for it, plus as many
+     * of the wanted helpers as the limit then allows
+     *
+     * @param helpers the number of helper threads wanted
+     * @return the number of helper threads granted, from 0 to helpers
+     */
+    static int acquire(int helpers) {
+        lock.lock();
+        try {
+            while (inUse >= limit) {
+                // A move is still owed, so an interrupt does not abandon the search
+                released.awaitUninterruptibly();
+            }
+            int granted = Math.max(0, Math.min(helpers, limit - inUse - 1));
+            inUse += 1 + granted;
+            return granted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back threads taken by acquire, counting the main thread as one
+     */
+    static void release(int threads) {
+        lock.lock();
+        try {
+            inUse -= threads;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed-size hash table of search results, keyed by a position's 64-bit Zobrist key.
+ * <p>
+ * Each slot is two longs in one flat array: the packed data (best move, score, depth, bound
+ * and the search generation that wrote it) and the key XORed with that data. There are no
+ * locks, so any number of searches may share a table. A slot torn by two threads writing at
+ * once no longer XORs back to its key and simply reads as a miss.
+ * <p>
+ * The generation belongs to the table, not to a search. When engines playing different games
+ * share one table, each new search ages the entries of the others, which then lose their
+ * protection from replacement but are still found by probes. Sharing trades that for a table
+ * warmed by every game; an engine that must keep its own entries should get its own table.
+ */
+public class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int MOVE_BITS = 19;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int SCORE_BITS = 21;
+    private static final int SCORE_OFFSET = 1 << (SCORE_BITS - 1);
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int GENERATION_SHIFT = BOUND_SHIFT + 2;
+
+    private static final int BYTES_PER_SLOT = 16;
+
+    private final long[] slots;
+    private final int mask;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * @param megabytes the memory to use; the slot count is rounded down to a power of two
+     */
+    public TranspositionTable(int megabytes) {
+        long wanted = Math.max(1L, (long) megabytes * 1024 * 1024 / BYTES_PER_SLOT);
+        int slotCount = Integer.highestOneBit((int) Math.min(wanted, 1 << 29));
+        this.slots = new long[slotCount * 2];
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Looks a position up
+     *
+     * @return the packed entry, to be read with move, score, depth and bound, or 0 if the table
+     * holds nothing for the key
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long data = slots[2 * index + 1];
+        return data != 0 && (slots[2 * index] ^ data) == key ? data : 0;
+    }
+
+    /**
+     * Records a search result. An entry for another position is replaced unless it was written
+     * by the current search and searched deeper.
+     *
+     * @param move  the best move found, packed by PackedMove, or 0 if none
+     * @param score the score from the side to move's point of view
+     * @param depth the depth searched
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param ply   how far the position is from the root, so mate scores can be stored relative
+     *              to the position rather than the root
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = (int) key & mask;
+        int current = generation.get() & 0xFF;
+        long old = slots[2 * index + 1];
+        if (old != 0 && (slots[2 * index] ^ old) != key && generation(old) == current && depth(old) > depth) {
+            return;
+        }
+        if (move == 0 && old != 0 && (slots[2 * index] ^ old) == key) {
+            // Keep the best move of an earlier search of this position
+            move = move(old);
+        }
+        long data = (move & ((1L << MOVE_BITS) - 1))
+                | ((long) (toStored(score, ply) + SCORE_OFFSET) << SCORE_SHIFT)
+                | ((long) Math.min(depth, 255) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) current << GENERATION_SHIFT);
+        slots[2 * index] = key ^ data;
+        slots[2 * index + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are replaced first
+     */
+    public void newSearch() {
+        generation.incrementAndGet();
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+    }
+
+    /**
+     * @return how many slots, per thousand, hold an entry from the current search, sampled
+     * from the first thousand slots
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, mask + 1);
+        int current = generation.get() & 0xFF;
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = slots[2 * i + 1];
+            if (data != 0 && generation(data) == current) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & ((1L << MOVE_BITS) - 1));
+    }
+
+    /**
+     * @param ply how far the probing position is from the root
+     */
+    public static int score(long entry, int ply) {
+        int stored = (int) ((entry >>> SCORE_SHIFT) & ((1L << SCORE_BITS) - 1)) - SCORE_OFFSET;
+        if (stored > Search.MATE - Search.MAX_PLY) {
+            return stored - ply;
+        }
+        if (stored < -Search.MATE + Search.MAX_PLY) {
+            return stored + ply;
+        }
+        return stored;
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 0x3);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & 0xFF);
+    }
+
+    // Mate scores count plies from the root; stored, they count from the position itself
+    private static int toStored(int score, int ply) {
+        if (score > Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score < -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,15 @@
+package chess.notation;
+
+import chess.ChessGame;
+
+import java.util.Map;
+
+/**
+ * One game read from a PGN file
+ *
+ * @param tags   the tag pairs in file order, e.g. Event, White, Black and Result
+ * @param game   the game after replaying every move, with the moves in its history
+ * @param result the game termination marker: 1-0, 0-1, 1/2-1/2 or *
+ */
+public record PgnGame(Map<String, String> tags, ChessGame game, String result) {
+}
@@ -0,0 +1,227 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.rules.LegalMoveCache;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads games one at a time from PGN text, replaying each move through ChessGame.makeMove.
+ * <p>
+ * The text is read a character at a time through a buffer and only the game being read is
+ * held in memory, so files of any size can be read in constant memory. Comments, variations,
+ * move numbers and numeric annotation glyphs are skipped.
+ * <p>
+ * An imported game passes through each of its positions once, so games are replayed through a
+ * small cache of the reader's own instead of LegalMoveCache.SHARED, where they would evict the
+ * positions of live games. The games returned use the shared cache again.
+ */
+public class PgnReader implements Closeable {
+
+    private final Reader reader;
+    private final StringBuilder token = new StringBuilder(16);
+    private int line = 1;
+    // Whether the character last read is the first of its line, and the character before it
+    private boolean atLineStart;
+    private int previous = '\n';
+    // One character of look-ahead, or -2 when none is held
+    private int pushedBack = -2;
+    private final LegalMoveCache cache = new LegalMoveCache(16);
+
+    public PgnReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return the game, or null if there are no more games
+     * @throws IOException          if the text cannot be read or is not PGN
+     * @throws InvalidMoveException if a move in the game is not legal
+     */
+    public PgnGame next() throws IOException, InvalidMoveException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        ChessGame game = null;
+        int c;
+        while ((c = skipWhitespace()) != -1) {
+            if (c == '[') {
+                if (game != null) {
+                    // The next game's tags began before this one gave a result
+                    unread(c);
+                    return finish(tags, game, "*");
+                }
+                readTag(tags);
+                continue;
+            }
+            if (game == null) {
+                game = startingGame(tags);
+            }
+            switch (c) {
+                case '{' -> skipUntil('}');
+                case ';' -> skipUntil('\n');
+                case '(' -> skipVariation();
+                case '$' -> readToken(c);
+                default -> {
+                    String word = readToken(c);
+                    if (isResult(word)) {
+                        return finish(tags, game, word);
+                    }
+                    String san = stripMoveNumber(word);
+                    if (!san.isEmpty()) {
+                        try {
+                            game.makeMove(San.parse(game, san));
+                        } catch (InvalidMoveException e) {
+                            throw new InvalidMoveException("Line " + line + ": " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+        if (game == null && tags.isEmpty()) {
+            return null;
+        }
+        // Text ended without a result; treat the game as unfinished
+        return finish(tags, game == null ? startingGame(tags) : game, "*");
+    }
+
+    private ChessGame startingGame(Map<String, String> tags) {
+        String fen = tags.get("FEN");
+        ChessGame game = fen == null ? new ChessGame() : ChessGame.fromFen(fen);
+        game.setMoveCache(cache);
+        return game;
+    }
+
+    private static PgnGame finish(Map<String, String> tags, ChessGame game, String result) {
+        game.setMoveCache(LegalMoveCache.SHARED);
+        return new PgnGame(tags, game, result);
+    }
+
+    private static boolean isResult(String word) {
+        return word.equals("1-0") || word.equals("0-1") || word.equals("1/2-1/2") || word.equals("*");
+    }
+
+    // "12.e4", "12..." and "12" all lose their move number
+    private static String stripMoveNumber(String word) {
+        int i = 0;
+        while (i < word.length() && Character.isDigit(word.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || (i < word.length() && word.charAt(i) != '.')) {
+            return word;
+        }
+        while (i < word.length() && word.charAt(i) == '.') {
+            i++;
+        }
+        return word.substring(i);
+    }
+
+    private void readTag(Map<String, String> tags) throws IOException {
+        String name = readToken(skipWhitespace());
+        if (skipWhitespace() != '"') {
+            throw error("Expected a quoted tag value");
+        }
+        token.setLength(0);
+        int c;
+        while ((c = read()) != '"') {
+            if (c == -1) {
+                throw error("Unterminated tag value");
+            }
+            if (c == '\\') {
+                c = read();
+            }
+            token.append((char) c);
+        }
+        String value = token.toString();
+        if (skipWhitespace() != ']') {
+            throw error("Expected ] after tag " + name);
+        }
+        tags.put(name, value);
+    }
+
+    private String readToken(int first) throws IOException {
+        token.setLength(0);
+        int c = first;
+        while (c != -1 && !Character.isWhitespace(c) && "[]{}();\"".indexOf(c) < 0) {
+            token.append((char) c);
+            c = read();
+        }
+        unread(c);
+        return token.toString();
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            switch (c) {
+                case -1 -> throw error("Unterminated variation");
+                case '(' -> depth++;
+                case ')' -> depth--;
+                case '{' -> skipUntil('}');
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void skipUntil(char end) throws IOException {
+        int c;
+        while ((c = read()) != end) {
+            if (c == -1) {
+                if (end == '\n') {
+                    return;
+                }
+                throw error("Unterminated comment");
+            }
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+            // Lines starting with % are escaped and ignored
+            if (c == '%' && atLineStart) {
+                skipUntil('\n');
+                c = '\n';
+            }
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            // Still where it was when first read
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            c = reader.read();
+            if (c == '\n') {
+                line++;
+            }
+            atLineStart = previous == '\n';
+            previous = c;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    private IOException error(String message) {
+        return new IOException("PGN line " + line + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
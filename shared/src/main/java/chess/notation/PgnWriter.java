@@ -0,0 +1,130 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameStatus;
+import chess.InvalidMoveException;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes games as PGN, one after another, with moves in SAN taken from each game's history
+ */
+public class PgnWriter implements Closeable, Flushable {
+
+    private static final String START_FEN = new ChessGame().toFen();
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final int LINE_LENGTH = 79;
+
+    private final Writer writer;
+
+    public PgnWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void write(PgnGame game) throws IOException {
+        write(game.game(), game.tags());
+    }
+
+    /**
+     * Writes a game. The seven standard tags come first, with ? for any not given, and a FEN
+     * tag is added when the game did not start from the standard position.
+     *
+     * @param game the game, whose move history becomes the move text
+     * @param tags tag pairs to write; Result is worked out from the game if it is not given
+     * @throws IOException if the text cannot be written
+     */
+    public void write(ChessGame game, Map<String, String> tags) throws IOException {
+        String result = tags.getOrDefault("Result", result(game));
+        for (String name : SEVEN_TAG_ROSTER) {
+            writeTag(name, name.equals("Result") ? result : tags.getOrDefault(name, "?"));
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!isRosterTag(tag.getKey()) && !tag.getKey().equals("FEN") && !tag.getKey().equals("SetUp")) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+        if (!game.getStartFen().equals(START_FEN)) {
+            writeTag("SetUp", "1");
+            writeTag("FEN", game.getStartFen());
+        }
+        writer.write('\n');
+        writeMoves(game, result);
+        writer.write("\n\n");
+    }
+
+    private void writeMoves(ChessGame game, String result) throws IOException {
+        ChessGame replay = ChessGame.fromFen(game.getStartFen());
+        StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+        boolean first = true;
+        for (ChessMove move : game.getMoveHistory()) {
+            StringBuilder word = new StringBuilder(16);
+            if (replay.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                word.append(replay.getFullmoveNumber()).append(". ");
+            } else if (first) {
+                word.append(replay.getFullmoveNumber()).append("... ");
+            }
+            word.append(San.format(replay, move));
+            appendWord(line, word);
+            first = false;
+            try {
+                replay.makeMove(move);
+            } catch (InvalidMoveException e) {
+                throw new IllegalStateException("Game history holds an illegal move: " + move, e);
+            }
+        }
+        appendWord(line, result);
+        writer.write(line.toString());
+    }
+
+    private void appendWord(StringBuilder line, CharSequence word) throws IOException {
+        if (!line.isEmpty() && line.length() + 1 + word.length() > LINE_LENGTH) {
+            writer.write(line.toString());
+            writer.write('\n');
+            line.setLength(0);
+        }
+        if (!line.isEmpty()) {
+            line.append(' ');
+        }
+        line.append(word);
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        writer.write('[');
+        writer.write(name);
+        writer.write(" \"");
+        writer.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        writer.write("\"]\n");
+    }
+
+    private static boolean isRosterTag(String name) {
+        for (String rosterTag : SEVEN_TAG_ROSTER) {
+            if (rosterTag.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String result(ChessGame game) {
+        GameStatus status = game.evaluateStatus();
+        if (status.isCheckmate()) {
+            return status.teamToMove() == ChessGame.TeamColor.WHITE ? "0-1" : "1-0";
+        }
+        return status.isDraw() ? "1/2-1/2" : "*";
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
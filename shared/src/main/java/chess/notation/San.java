@@ -0,0 +1,214 @@
+package chess.notation;
+
+import chess.*;
+import chess.rules.LegalMoveCache;
+import chess.rules.PackedMove;
+
+/**
+ * Standard Algebraic Notation, the move format of PGN: {@code e4}, {@code Nbd7}, {@code exd5},
+ * {@code O-O}, {@code e8=Q+}.
+ * <p>
+ * SAN only names the piece and its destination, plus just enough of the start square to tell
+ * apart two pieces that could both make the move, so reading and writing it both work from
+ * the legal moves of the position. Those come from the game's move cache, which ChessGame
+ * fills anyway to validate the move, and the check mark is read from the cached moves of the
+ * position after the move, which the next evaluateStatus then finds cached. Writing a move
+ * therefore costs a board copy rather than extra move generation.
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = "KQBNRP";
+
+    private San() {
+    }
+
+    /**
+     * Writes a move in SAN
+     *
+     * @param game the position before the move
+     * @param move a legal move in that position for the team whose turn it is
+     * @return the move in SAN, with + or # if it gives check or checkmate
+     * @throws IllegalArgumentException if the move is not legal for the team to move
+     */
+    public static String format(ChessGame game, ChessMove move) {
+        ChessBoard board = game.getBoard();
+        LegalMoveCache.Entry legalMoves = game.getMoveCache().lookup(board, game.getTeamTurn());
+        int packed = find(legalMoves, PackedMove.fromChessMove(move));
+        if (packed == 0) {
+            throw new IllegalArgumentException("Not a legal move: " + move);
+        }
+        int from = PackedMove.from(packed);
+        int to = PackedMove.to(packed);
+        ChessPiece piece = board.getPiece(from);
+        StringBuilder san = new StringBuilder(8);
+
+        if (PackedMove.hasFlag(packed, PackedMove.CASTLE)) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            boolean capture = PackedMove.hasFlag(packed, PackedMove.CAPTURE);
+            if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+                if (capture) {
+                    san.append(file(from));
+                }
+            } else {
+                san.append(letter(piece.getPieceType()));
+                appendDisambiguation(san, legalMoves, board, piece, from, to);
+            }
+            if (capture) {
+                san.append('x');
+            }
+            san.append(file(to)).append(Bitboards.row(to));
+            if (PackedMove.promotion(packed) != null) {
+                san.append('=').append(letter(PackedMove.promotion(packed)));
+            }
+        }
+        appendCheck(san, game.getMoveCache(), board, game.getTeamTurn(), packed);
+        return san.toString();
+    }
+
+    // The generated move equal to the given one, flags included, or 0 if it is not legal
+    private static int find(LegalMoveCache.Entry legalMoves, int move) {
+        for (int i = 0; i < legalMoves.moveCount(); i++) {
+            if (PackedMove.withoutFlags(legalMoves.move(i)) == move) {
+                return legalMoves.move(i);
+            }
+        }
+        return 0;
+    }
+
+    private static void appendDisambiguation(StringBuilder san, LegalMoveCache.Entry legalMoves, ChessBoard board,
+                                             ChessPiece piece, int from, int to) {
+        boolean ambiguous = false;
+        boolean sameColumn = false;
+        boolean sameRow = false;
+        for (int i = 0; i < legalMoves.moveCount(); i++) {
+            int other = legalMoves.move(i);
+            int otherFrom = PackedMove.from(other);
+            if (PackedMove.to(other) != to || otherFrom == from || !piece.equals(board.getPiece(otherFrom))) {
+                continue;
+            }
+            ambiguous = true;
+            sameColumn |= Bitboards.column(otherFrom) == Bitboards.column(from);
+            sameRow |= Bitboards.row(otherFrom) == Bitboards.row(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameColumn) {
+            san.append(file(from));
+        } else if (!sameRow) {
+            san.append(Bitboards.row(from));
+        } else {
+            san.append(file(from)).append(Bitboards.row(from));
+        }
+    }
+
+    private static void appendCheck(StringBuilder san, LegalMoveCache cache, ChessBoard board,
+                                    ChessGame.TeamColor mover, int move) {
+        ChessBoard after = board.copy();
+        after.makeMove(move);
+        ChessGame.TeamColor opponent = mover == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        LegalMoveCache.Entry replies = cache.lookup(after, opponent);
+        if (replies.isInCheck()) {
+            san.append(replies.hasLegalMove() ? '+' : '#');
+        }
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + Bitboards.column(square) - 1);
+    }
+
+    /**
+     * Reads a move in SAN. Check marks and annotations such as ! and ?? are ignored, castling
+     * may be written with zeros, and the = before a promotion piece may be left out.
+     *
+     * @param game the position the move is made in
+     * @param san  the move
+     * @return the legal move it names
+     * @throws InvalidMoveException if the text is not SAN, or names no legal move or more than one
+     */
+    public static ChessMove parse(ChessGame game, String san) throws InvalidMoveException {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        String text = san.substring(0, end);
+        LegalMoveCache.Entry legalMoves = game.getMoveCache().lookup(game.getBoard(), game.getTeamTurn());
+        ChessBoard board = game.getBoard();
+
+        if (text.equals("O-O") || text.equals("0-0") || text.equals("O-O-O") || text.equals("0-0-0")) {
+            int step = text.length() == 3 ? 2 : -2;
+            for (int i = 0; i < legalMoves.moveCount(); i++) {
+                int move = legalMoves.move(i);
+                if (PackedMove.hasFlag(move, PackedMove.CASTLE) && PackedMove.to(move) - PackedMove.from(move) == step) {
+                    return PackedMove.toChessMove(move);
+                }
+            }
+            throw new InvalidMoveException("Illegal move: " + san);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        if (end >= 2 && PIECE_LETTERS.indexOf(text.charAt(end - 1)) >= 0 && PIECE_LETTERS.indexOf(text.charAt(0)) < 0) {
+            promotion = type(text.charAt(end - 1));
+            end -= text.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end < 2) {
+            throw new InvalidMoveException("Not a SAN move: " + san);
+        }
+
+        int index = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (PIECE_LETTERS.indexOf(text.charAt(0)) >= 0) {
+            type = type(text.charAt(0));
+            index = 1;
+        }
+        int toColumn = text.charAt(end - 2) - 'a' + 1;
+        int toRow = text.charAt(end - 1) - '0';
+        // Whatever is between the piece letter and the destination narrows down the start square
+        int fromColumn = 0;
+        int fromRow = 0;
+        for (int i = index; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a' + 1;
+            } else if (c >= '1' && c <= '8') {
+                fromRow = c - '0';
+            } else if (c != 'x' && c != ':') {
+                throw new InvalidMoveException("Not a SAN move: " + san);
+            }
+        }
+        if (toColumn < 1 || toColumn > 8 || toRow < 1 || toRow > 8) {
+            throw new InvalidMoveException("Not a SAN move: " + san);
+        }
+
+        int to = Bitboards.square(toRow, toColumn);
+        int match = 0;
+        for (int i = 0; i < legalMoves.moveCount(); i++) {
+            int move = legalMoves.move(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.promotion(move) != promotion
+                    || board.getPiece(from).getPieceType() != type
+                    || (fromColumn != 0 && Bitboards.column(from) != fromColumn)
+                    || (fromRow != 0 && Bitboards.row(from) != fromRow)) {
+                continue;
+            }
+            if (match != 0) {
+                throw new InvalidMoveException("Ambiguous move: " + san);
+            }
+            match = move;
+        }
+        if (match == 0) {
+            throw new InvalidMoveException("Illegal move: " + san);
+        }
+        return PackedMove.toChessMove(match);
+    }
+
+    static char letter(ChessPiece.PieceType type) {
+        return PIECE_LETTERS.charAt(type.ordinal());
+    }
+
+    private static ChessPiece.PieceType type(char letter) {
+        return ChessPiece.PieceType.values()[PIECE_LETTERS.indexOf(letter)];
+    }
+}
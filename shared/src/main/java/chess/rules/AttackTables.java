@@ -0,0 +1,189 @@
+package chess.rules;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Precomputed attack sets for answering "is this square attacked" without generating moves.
+ * <p>
+ * Knight, king and pawn attacks are looked up directly by square. Sliding pieces walk
+ * precomputed rays and cut each ray off at its first blocker.
+ */
+public final class AttackTables {
+
+    // Ray directions, indexed to match RAY_STEPS
+    private static final int NORTH = 0;
+    private static final int EAST = 1;
+    private static final int NORTH_EAST = 2;
+    private static final int NORTH_WEST = 3;
+    private static final int SOUTH = 4;
+    private static final int WEST = 5;
+    private static final int SOUTH_EAST = 6;
+    private static final int SOUTH_WEST = 7;
+
+    // {row step, column step}; the first four directions move toward higher square indexes
+    private static final int[][] RAY_STEPS = {
+            {1, 0}, {0, 1}, {1, 1}, {1, -1}, {-1, 0}, {0, -1}, {-1, 1}, {-1, -1}
+    };
+    private static final int[][] KNIGHT_STEPS = {
+            {2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = Bitboards.row(square);
+            int col = Bitboards.column(square);
+            for (int[] step : KNIGHT_STEPS) {
+                KNIGHT_ATTACKS[square] |= bit(row + step[0], col + step[1]);
+            }
+            for (int dir = 0; dir < 8; dir++) {
+                int[] step = RAY_STEPS[dir];
+                KING_ATTACKS[square] |= bit(row + step[0], col + step[1]);
+                long between = 0;
+                for (int r = row + step[0], c = col + step[1]; Bitboards.isOnBoard(r, c); r += step[0], c += step[1]) {
+                    BETWEEN[square][Bitboards.square(r, c)] = between;
+                    between |= bit(r, c);
+                    RAYS[dir][square] |= bit(r, c);
+                }
+            }
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+        }
+        // A line runs through both squares and on to both edges of the board
+        int[] opposite = {SOUTH, WEST, SOUTH_WEST, SOUTH_EAST, NORTH, EAST, NORTH_WEST, NORTH_EAST};
+        for (int square = 0; square < 64; square++) {
+            for (int dir = 0; dir < 8; dir++) {
+                long line = RAYS[dir][square] | RAYS[opposite[dir]][square] | (1L << square);
+                long targets = RAYS[dir][square];
+                while (targets != 0) {
+                    LINE[square][Long.numberOfTrailingZeros(targets)] = line;
+                    targets &= targets - 1;
+                }
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    private static long bit(int row, int col) {
+        return Bitboards.isOnBoard(row, col) ? 1L << Bitboards.square(row, col) : 0L;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given team standing on the square attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ray(NORTH, square, occupied) | ray(EAST, square, occupied)
+                | ray(SOUTH, square, occupied) | ray(WEST, square, occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return ray(NORTH_EAST, square, occupied) | ray(NORTH_WEST, square, occupied)
+                | ray(SOUTH_EAST, square, occupied) | ray(SOUTH_WEST, square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared rank, file or diagonal,
+     * or 0 if they do not share one
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal through both squares, edge to edge,
+     * or 0 if they do not share one
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long ray(int dir, int square, long occupied) {
+        long attacks = RAYS[dir][square];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            int blocker = dir < SOUTH ? Long.numberOfTrailingZeros(blockers)
+                    : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[dir][blocker];
+        }
+        return attacks;
+    }
+
+    /**
+     * @return every piece of the given team that attacks the square, with sliding attacks
+     * computed against the given occupancy
+     */
+    public static long attackersTo(Bitboards bitboards, int square, ChessGame.TeamColor byColor, long occupied) {
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = bitboards.pieces(byColor, ChessPiece.PieceType.QUEEN);
+        return (PAWN_ATTACKS[defender.ordinal()][square] & bitboards.pieces(byColor, ChessPiece.PieceType.PAWN))
+                | (KNIGHT_ATTACKS[square] & bitboards.pieces(byColor, ChessPiece.PieceType.KNIGHT))
+                | (KING_ATTACKS[square] & bitboards.pieces(byColor, ChessPiece.PieceType.KING))
+                | (bishopAttacks(square, occupied) & (queens | bitboards.pieces(byColor, ChessPiece.PieceType.BISHOP)))
+                | (rookAttacks(square, occupied) & (queens | bitboards.pieces(byColor, ChessPiece.PieceType.ROOK)));
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square
+     *
+     * @param bitboards the board to look at
+     * @param square    the square being attacked
+     * @param byColor   the attacking team
+     * @return True if a piece of byColor could capture on the square
+     */
+    public static boolean isSquareAttacked(Bitboards bitboards, int square, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(bitboards, square, byColor, bitboards.occupancy());
+    }
+
+    /**
+     * Same as {@link #isSquareAttacked(Bitboards, int, ChessGame.TeamColor)} but with sliding
+     * attacks computed against the given occupancy, e.g. with a moving king taken off the board
+     */
+    public static boolean isSquareAttacked(Bitboards bitboards, int square, ChessGame.TeamColor byColor,
+                                           long occupied) {
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if ((PAWN_ATTACKS[defender.ordinal()][square] & bitboards.pieces(byColor, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+        if ((KNIGHT_ATTACKS[square] & bitboards.pieces(byColor, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((KING_ATTACKS[square] & bitboards.pieces(byColor, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = bitboards.pieces(byColor, ChessPiece.PieceType.QUEEN);
+        long diagonal = queens | bitboards.pieces(byColor, ChessPiece.PieceType.BISHOP);
+        if (diagonal != 0 && (bishopAttacks(square, occupied) & diagonal) != 0) {
+            return true;
+        }
+        long straight = queens | bitboards.pieces(byColor, ChessPiece.PieceType.ROOK);
+        return straight != 0 && (rookAttacks(square, occupied) & straight) != 0;
+    }
+}
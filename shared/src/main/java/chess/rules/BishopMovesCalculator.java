@@ -9,13 +9,16 @@ import java.util.Collection;
 
 public class BishopMovesCalculator extends MoveCalculator {
 
+    public static final BishopMovesCalculator INSTANCE = new BishopMovesCalculator();
+
+    private BishopMovesCalculator() {
+    }
+
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        this.currentPosition = myPosition;
-        recursiveCheck(board, myPosition, Directions.UPRIGHT);
-        recursiveCheck(board, myPosition, Directions.UPLEFT);
-        recursiveCheck(board, myPosition, Directions.DOWNRIGHT);
-        recursiveCheck(board, myPosition, Directions.DOWNLEFT);
-        return this.moves;
+    public void pieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
+        recursiveCheck(board, myPosition, myPosition, Directions.UPRIGHT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.UPLEFT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWNRIGHT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWNLEFT, moves);
     }
 }
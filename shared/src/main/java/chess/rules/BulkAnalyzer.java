@@ -0,0 +1,76 @@
+package chess.rules;
+
+import chess.ChessGame;
+import chess.GameStatus;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Works out the status of many games at once across the threads of a fork/join pool, for batch
+ * jobs such as validating an archive of finished games.
+ * <p>
+ * The list is split in halves until each piece is small, and every piece is evaluated on one
+ * thread with its own move list. Moves are generated directly rather than through the shared
+ * LegalMoveCache, whose lock would otherwise be the bottleneck. The games must not be changed
+ * while they are being analyzed, and each game should appear in the list only once.
+ */
+public final class BulkAnalyzer {
+
+    private static final int GAMES_PER_TASK = 64;
+
+    private BulkAnalyzer() {
+    }
+
+    /**
+     * @return the status of each game, in the same order as the list
+     */
+    public static List<GameStatus> evaluateStatus(List<ChessGame> games, ForkJoinPool pool) {
+        GameStatus[] statuses = new GameStatus[games.size()];
+        pool.invoke(new StatusTask(games.toArray(new ChessGame[0]), statuses, 0, statuses.length));
+        return List.of(statuses);
+    }
+
+    /**
+     * Works out a game's status without touching the shared cache
+     *
+     * @param moves scratch space for the move generator; its contents are replaced
+     */
+    public static GameStatus evaluateStatus(ChessGame game, MoveList moves) {
+        LegalMoveGenerator generator = new LegalMoveGenerator(game.getBoard(), game.getTeamTurn());
+        moves.clear();
+        generator.generate(moves);
+        return GameStatus.of(game, generator.isInCheck(), moves.size());
+    }
+
+    // Fork/join tasks are Serializable through ForkJoinTask but are never serialized
+    @SuppressWarnings("serial")
+    private static final class StatusTask extends RecursiveAction {
+
+        private final ChessGame[] games;
+        private final GameStatus[] statuses;
+        private final int start;
+        private final int end;
+
+        private StatusTask(ChessGame[] games, GameStatus[] statuses, int start, int end) {
+            this.games = games;
+            this.statuses = statuses;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= GAMES_PER_TASK) {
+                MoveList moves = new MoveList();
+                for (int i = start; i < end; i++) {
+                    statuses[i] = evaluateStatus(games[i], moves);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new StatusTask(games, statuses, start, middle), new StatusTask(games, statuses, middle, end));
+        }
+    }
+}
@@ -7,17 +7,21 @@ import chess.ChessPosition;
 import java.util.Collection;
 
 public class KingMovesCalculator extends MoveCalculator {
+
+    public static final KingMovesCalculator INSTANCE = new KingMovesCalculator();
+
+    private KingMovesCalculator() {
+    }
+
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        this.currentPosition = myPosition;
-        recursiveCheck(board, myPosition, Directions.UPRIGHT, Boolean.TRUE);
-        recursiveCheck(board, myPosition, Directions.UPLEFT, Boolean.TRUE);
-        recursiveCheck(board, myPosition, Directions.DOWNRIGHT, Boolean.TRUE);
-        recursiveCheck(board, myPosition, Directions.DOWNLEFT, Boolean.TRUE);
-        recursiveCheck(board, myPosition, Directions.UP, Boolean.TRUE);
-        recursiveCheck(board, myPosition, Directions.DOWN, Boolean.TRUE);
-        recursiveCheck(board, myPosition, Directions.LEFT, Boolean.TRUE);
-        recursiveCheck(board, myPosition, Directions.RIGHT, Boolean.TRUE);
-        return this.moves;
+    public void pieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
+        recursiveCheck(board, myPosition, myPosition, Directions.UPRIGHT, true, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.UPLEFT, true, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWNRIGHT, true, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWNLEFT, true, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.UP, true, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWN, true, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.LEFT, true, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.RIGHT, true, moves);
     }
 }
@@ -7,55 +7,53 @@ import chess.ChessPosition;
 import java.util.Collection;
 
 public class KnightMovesCalculator extends MoveCalculator {
-    @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        this.currentPosition = myPosition;
-        knightMoves(board, myPosition);
-        return this.moves;
-    }
 
-    private void knightMoves(ChessBoard board, ChessPosition position) {
-        Directions[] upDiags = new Directions[]{Directions.UPRIGHT, Directions.UPLEFT};
-        Directions[] rightDiags = new Directions[]{Directions.UPRIGHT, Directions.DOWNRIGHT};
-        Directions[] downDiags = new Directions[]{Directions.DOWNRIGHT, Directions.DOWNLEFT};
-        Directions[] leftDiags = new Directions[]{Directions.DOWNLEFT, Directions.UPLEFT};
+    public static final KnightMovesCalculator INSTANCE = new KnightMovesCalculator();
+
+    private static final Directions[] UP_DIAGS = new Directions[]{Directions.UPRIGHT, Directions.UPLEFT};
+    private static final Directions[] RIGHT_DIAGS = new Directions[]{Directions.UPRIGHT, Directions.DOWNRIGHT};
+    private static final Directions[] DOWN_DIAGS = new Directions[]{Directions.DOWNRIGHT, Directions.DOWNLEFT};
+    private static final Directions[] LEFT_DIAGS = new Directions[]{Directions.DOWNLEFT, Directions.UPLEFT};
+    private static final Directions[] FIRST_STEPS = new Directions[]{Directions.UP, Directions.DOWN,
+            Directions.LEFT, Directions.RIGHT};
+
+    private KnightMovesCalculator() {
+    }
 
-        Directions[] firstSteps = new Directions[]{Directions.UP, Directions.DOWN, Directions.LEFT, Directions.RIGHT};
+    @Override
+    public void pieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
+        ChessPiece knight = board.getPiece(myPosition);
 
-        for (Directions direction : firstSteps) {
+        for (Directions direction : FIRST_STEPS) {
 
             // get the position, if null we trim
-            ChessPosition firstStep = getSteppedPosition(this.currentPosition, direction);
+            ChessPosition firstStep = getSteppedPosition(myPosition, direction);
             if (firstStep == null) { continue; }
 
             Directions[] correctDiags;
 
             switch (direction) {
-                case UP -> correctDiags = upDiags;
-                case DOWN -> correctDiags = downDiags;
-                case LEFT -> correctDiags = leftDiags;
-                case RIGHT -> correctDiags = rightDiags;
+                case UP -> correctDiags = UP_DIAGS;
+                case DOWN -> correctDiags = DOWN_DIAGS;
+                case LEFT -> correctDiags = LEFT_DIAGS;
+                case RIGHT -> correctDiags = RIGHT_DIAGS;
                 default -> {
                     continue;
                 }
             }
 
+            // if empty or enemy, add move
             for (Directions diags : correctDiags) {
                 ChessPosition diagPos = getSteppedPosition(firstStep, diags);
                 if (diagPos != null) {
-                    ChessPiece knight = board.getPiece(this.currentPosition);
                     ChessPiece attacked = board.getPiece(diagPos);
                     int ability = moveAbility(knight, attacked);
                     if (ability < 2) {
-                        ChessMove newMove = new ChessMove(this.currentPosition, diagPos, null);
-                        this.moves.add(newMove);
+                        moves.add(new ChessMove(myPosition, diagPos, null));
                     }
                 }
 
             }
-            // if empty or enemy, add move
         }
-
-
     }
 }
@@ -0,0 +1,172 @@
+package chess.rules;
+
+import chess.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of legal moves, keyed by the Zobrist key of the position and the team to move.
+ * <p>
+ * Highlighting, move validation and the checkmate and stalemate tests all ask about the same
+ * position in quick succession, and openings repeat across games, so most queries are served
+ * from here instead of regenerating. The least recently used position is evicted once the cache
+ * is full. Safe to share between threads.
+ * <p>
+ * ChessGame validates moves against these entries, so a hit is only trusted if the cached
+ * position's placement, castling rights, en passant square and team all match; two positions
+ * that merely share a key are treated as a miss.
+ */
+public class LegalMoveCache {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The cache ChessGame uses
+     */
+    public static final LegalMoveCache SHARED = new LegalMoveCache(DEFAULT_CAPACITY);
+
+    private final Map<Long, Entry> entries;
+    private long hits;
+    private long misses;
+
+    public LegalMoveCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the legal moves of a team, generating and caching them if the position is not cached
+     *
+     * @param board the position
+     * @param color the team to generate moves for
+     * @return the cached moves for that team in that position
+     */
+    public Entry lookup(ChessBoard board, ChessGame.TeamColor color) {
+        return lookup(board, color, board.getZobristKey() ^ Zobrist.sideKey(color));
+    }
+
+    // Split out so tests can force two positions onto the same key
+    Entry lookup(ChessBoard board, ChessGame.TeamColor color, long key) {
+        long[] position = fingerprint(board, color);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && Arrays.equals(entry.position, position)) {
+                hits++;
+                return entry;
+            }
+            misses++;
+        }
+        // Generate outside the lock; two threads missing on the same position just both generate it
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        MoveList moves = new MoveList();
+        generator.generate(moves);
+        Entry entry = new Entry(position, moves.toArray(), generator.isInCheck());
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    // Everything the legal moves depend on: the piece bitboards, then castling, en passant and team
+    private static long[] fingerprint(ChessBoard board, ChessGame.TeamColor color) {
+        Bitboards bitboards = board.getBitboards();
+        long[] position = new long[Bitboards.PIECE_KINDS + 1];
+        for (int i = 0; i < Bitboards.PIECE_KINDS; i++) {
+            position[i] = bitboards.pieces(i);
+        }
+        position[Bitboards.PIECE_KINDS] = board.getCastlingRights()
+                | (long) (board.getEnPassantSquare() & 0xFF) << 8 | (long) color.ordinal() << 16;
+        return position;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Empties the cache and resets the hit and miss counters
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * The legal moves of one team in one position. Immutable.
+     */
+    public static final class Entry {
+
+        private final long[] position;
+        private final int[] moves;
+        private final boolean inCheck;
+
+        private Entry(long[] position, int[] moves, boolean inCheck) {
+            this.position = position;
+            this.moves = moves;
+            this.inCheck = inCheck;
+        }
+
+        public boolean isInCheck() {
+            return inCheck;
+        }
+
+        public boolean hasLegalMove() {
+            return moves.length > 0;
+        }
+
+        public int moveCount() {
+            return moves.length;
+        }
+
+        /**
+         * @return the legal move at the given index, from 0 up to moveCount(), packed as in PackedMove
+         */
+        public int move(int index) {
+            return moves[index];
+        }
+
+        /**
+         * @return every legal move of the team
+         */
+        public Collection<ChessMove> moves() {
+            Collection<ChessMove> chessMoves = new ArrayList<>(moves.length);
+            for (int move : moves) {
+                chessMoves.add(PackedMove.toChessMove(move));
+            }
+            return chessMoves;
+        }
+
+        /**
+         * @return the legal moves of the piece on the given square
+         */
+        public Collection<ChessMove> movesFrom(int square) {
+            Collection<ChessMove> chessMoves = new ArrayList<>();
+            for (int move : moves) {
+                if (PackedMove.from(move) == square) {
+                    chessMoves.add(PackedMove.toChessMove(move));
+                }
+            }
+            return chessMoves;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package chess.rules;
+
+import chess.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Generates only legal moves for one team, without trying each move and testing for check.
+ * <p>
+ * The pieces giving check and the pieces pinned to the king are worked out once when the
+ * generator is built. Every non-king move is then limited to the squares that resolve the
+ * check, and a pinned piece is limited to the line it is pinned along. King moves are kept
+ * only if the destination is not attacked once the king has left its square. En passant
+ * removes two pieces from one rank, so it is checked separately by looking for attacks on
+ * the king after the capture.
+ */
+public class LegalMoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private final Bitboards bitboards;
+    private final ChessGame.TeamColor color;
+    private final ChessGame.TeamColor enemy;
+    private final long ownPieces;
+    private final long enemyPieces;
+    private final long occupied;
+    private final int kingSquare;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+    private final int castlingRights;
+    private final int enPassantSquare;
+
+    public LegalMoveGenerator(ChessBoard board, ChessGame.TeamColor color) {
+        this.bitboards = board.getBitboards();
+        this.color = color;
+        this.enemy = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        this.ownPieces = bitboards.occupancy(color);
+        this.enemyPieces = bitboards.occupancy(enemy);
+        this.occupied = ownPieces | enemyPieces;
+        this.kingSquare = bitboards.kingSquare(color);
+        this.castlingRights = board.getCastlingRights();
+        this.enPassantSquare = board.getEnPassantSquare();
+
+        if (kingSquare < 0) {
+            // Without a king nothing can be in check or pinned
+            this.checkers = 0;
+            this.checkMask = ~0L;
+            this.pinned = 0;
+            return;
+        }
+
+        this.checkers = AttackTables.attackersTo(bitboards, kingSquare, enemy, occupied);
+        if (checkers == 0) {
+            this.checkMask = ~0L;
+        } else if (Long.bitCount(checkers) == 1) {
+            // Capture the checker or, for a slider, step in between
+            int checker = Long.numberOfTrailingZeros(checkers);
+            this.checkMask = checkers | AttackTables.between(kingSquare, checker);
+        } else {
+            // Double check: only the king can move
+            this.checkMask = 0;
+        }
+        this.pinned = findPinned();
+    }
+
+    /**
+     * @return every legal move for the given team
+     */
+    public static Collection<ChessMove> legalMoves(ChessBoard board, ChessGame.TeamColor color) {
+        MoveList moves = new MoveList();
+        new LegalMoveGenerator(board, color).generate(moves);
+        Collection<ChessMove> chessMoves = new ArrayList<>(moves.size());
+        moves.toChessMoves(chessMoves);
+        return chessMoves;
+    }
+
+    /**
+     * @return every legal move for the piece on the given position, or an empty collection if it is empty
+     */
+    public static Collection<ChessMove> legalMoves(ChessBoard board, ChessPosition position) {
+        Collection<ChessMove> chessMoves = new ArrayList<>();
+        ChessPiece piece = board.getPiece(position);
+        if (piece != null) {
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(board, piece.getTeamColor()).generate(Bitboards.square(position), moves);
+            moves.toChessMoves(chessMoves);
+        }
+        return chessMoves;
+    }
+
+    /**
+     * @return True if the team this generator was built for is in check
+     */
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * @return True if the team has at least one legal move, stopping at the first one found
+     */
+    public boolean hasLegalMove() {
+        long pieces = ownPieces;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            if (targets(square) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds every legal move for the team to the given list
+     */
+    public void generate(MoveList moves) {
+        long pieces = ownPieces;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            generate(square, moves);
+        }
+    }
+
+    /**
+     * Adds every legal move for the piece on the given square to the given list
+     */
+    public void generate(int from, MoveList moves) {
+        long targets = targets(from);
+        if (targets == 0) {
+            return;
+        }
+        boolean isPawn = (1L << from & bitboards.pieces(color, ChessPiece.PieceType.PAWN)) != 0;
+        boolean promotes = isPawn && Bitboards.row(from) == (color == ChessGame.TeamColor.WHITE ? 7 : 2);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (enemyPieces & 1L << to) != 0 ? PackedMove.CAPTURE : PackedMove.NONE;
+            if (isPawn && Math.abs(to - from) == 16) {
+                flags |= PackedMove.DOUBLE_PUSH;
+            } else if (isPawn && to == enPassantSquare) {
+                flags |= PackedMove.CAPTURE | PackedMove.EN_PASSANT;
+            } else if (from == kingSquare && Math.abs(to - from) == 2) {
+                flags |= PackedMove.CASTLE;
+            }
+            if (promotes) {
+                for (ChessPiece.PieceType type : PROMOTION_TYPES) {
+                    moves.add(PackedMove.of(from, to, type, flags));
+                }
+            } else {
+                moves.add(PackedMove.of(from, to, flags));
+            }
+        }
+    }
+
+    /**
+     * @return the legal destination squares of the team's piece on the given square
+     */
+    public long targets(int from) {
+        long fromBit = 1L << from;
+        if ((ownPieces & fromBit) == 0) {
+            return 0;
+        }
+        if (from == kingSquare) {
+            return kingTargets() | castlingTargets();
+        }
+        long targets = pseudoTargets(from, fromBit) & checkMask;
+        if ((pinned & fromBit) != 0) {
+            targets &= AttackTables.line(kingSquare, from);
+        }
+        if (enPassantSquare >= 0 && (bitboards.pieces(color, ChessPiece.PieceType.PAWN) & fromBit) != 0) {
+            targets |= enPassantTarget(from);
+        }
+        return targets;
+    }
+
+    private long pseudoTargets(int from, long fromBit) {
+        if ((bitboards.pieces(color, ChessPiece.PieceType.PAWN) & fromBit) != 0) {
+            return pawnTargets(from);
+        }
+        if ((bitboards.pieces(color, ChessPiece.PieceType.KNIGHT) & fromBit) != 0) {
+            return AttackTables.knightAttacks(from) & ~ownPieces;
+        }
+        if ((bitboards.pieces(color, ChessPiece.PieceType.BISHOP) & fromBit) != 0) {
+            return AttackTables.bishopAttacks(from, occupied) & ~ownPieces;
+        }
+        if ((bitboards.pieces(color, ChessPiece.PieceType.ROOK) & fromBit) != 0) {
+            return AttackTables.rookAttacks(from, occupied) & ~ownPieces;
+        }
+        if ((bitboards.pieces(color, ChessPiece.PieceType.QUEEN) & fromBit) != 0) {
+            return AttackTables.queenAttacks(from, occupied) & ~ownPieces;
+        }
+        // A second king is moved like any other piece
+        return AttackTables.kingAttacks(from) & ~ownPieces;
+    }
+
+    private long pawnTargets(int from) {
+        int row = Bitboards.row(from);
+        int column = Bitboards.column(from);
+        int forward = color == ChessGame.TeamColor.WHITE ? 1 : -1;
+        int startRow = color == ChessGame.TeamColor.WHITE ? 2 : 7;
+
+        long targets = AttackTables.pawnAttacks(color, from) & enemyPieces;
+        if (Bitboards.isOnBoard(row + forward, column)) {
+            int oneAhead = Bitboards.square(row + forward, column);
+            if (bitboards.isEmpty(oneAhead)) {
+                targets |= 1L << oneAhead;
+                if (row == startRow) {
+                    int twoAhead = Bitboards.square(row + 2 * forward, column);
+                    if (bitboards.isEmpty(twoAhead)) {
+                        targets |= 1L << twoAhead;
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    private long kingTargets() {
+        long targets = AttackTables.kingAttacks(kingSquare) & ~ownPieces;
+        // Take the king off the board so sliders checking it also cover the squares behind it
+        long withoutKing = occupied & ~(1L << kingSquare);
+        long safe = 0;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (!AttackTables.isSquareAttacked(bitboards, to, enemy, withoutKing)) {
+                safe |= 1L << to;
+            }
+        }
+        return safe;
+    }
+
+    private long castlingTargets() {
+        if (checkers != 0) {
+            return 0;
+        }
+        long targets = 0;
+        int first = CastlingRights.firstRight(color);
+        for (int right = first; right < first + 2; right++) {
+            if ((castlingRights & 1 << right) == 0
+                    || (AttackTables.between(kingSquare, CastlingRights.rookHome(right)) & occupied) != 0) {
+                continue;
+            }
+            // The king may not pass over or land on an attacked square
+            int target = CastlingRights.kingTarget(right);
+            int passed = (kingSquare + target) / 2;
+            if (!AttackTables.isSquareAttacked(bitboards, passed, enemy, occupied)
+                    && !AttackTables.isSquareAttacked(bitboards, target, enemy, occupied)) {
+                targets |= 1L << target;
+            }
+        }
+        return targets;
+    }
+
+    private long enPassantTarget(int from) {
+        if ((AttackTables.pawnAttacks(color, from) & 1L << enPassantSquare) == 0) {
+            return 0;
+        }
+        // The pawn being captured stands beside the capturing pawn, on its row
+        int captured = (from & ~7) | (enPassantSquare & 7);
+        long capturedBit = 1L << captured;
+        if ((bitboards.pieces(enemy, ChessPiece.PieceType.PAWN) & capturedBit) == 0) {
+            return 0;
+        }
+        if (kingSquare < 0) {
+            return 1L << enPassantSquare;
+        }
+        long after = (occupied & ~(1L << from) & ~capturedBit) | 1L << enPassantSquare;
+        long attackers = AttackTables.attackersTo(bitboards, kingSquare, enemy, after) & ~capturedBit;
+        return attackers == 0 ? 1L << enPassantSquare : 0;
+    }
+
+    private long findPinned() {
+        long enemyQueens = bitboards.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long straight = enemyQueens | bitboards.pieces(enemy, ChessPiece.PieceType.ROOK);
+        long diagonal = enemyQueens | bitboards.pieces(enemy, ChessPiece.PieceType.BISHOP);
+        // Enemy sliders that would see the king if only enemy pieces were on the board
+        long snipers = (AttackTables.rookAttacks(kingSquare, enemyPieces) & straight)
+                | (AttackTables.bishopAttacks(kingSquare, enemyPieces) & diagonal);
+
+        long pinnedPieces = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & ownPieces) != 0) {
+                pinnedPieces |= blockers;
+            }
+        }
+        return pinnedPieces;
+    }
+}
@@ -8,11 +8,29 @@ import chess.ChessPosition;
 import java.util.ArrayList;
 import java.util.Collection;
 
+/**
+ * Base for the per-piece move rules. Calculators hold no state between calls, so a single
+ * shared instance of each one is used by every board and thread.
+ */
 public abstract class MoveCalculator {
-    protected ChessPosition currentPosition;
-    protected Collection<ChessMove> moves = new ArrayList<>();
 
-    public abstract Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition);
+    /**
+     * Adds the moves the piece at myPosition could make, ignoring check, to a caller-provided collection
+     *
+     * @param board      the board the piece is on
+     * @param myPosition where the piece is
+     * @param moves      collection the moves are added to
+     */
+    public abstract void pieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves);
+
+    /**
+     * Same as the buffered version, but collects the moves into a new collection
+     */
+    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        Collection<ChessMove> moves = new ArrayList<>();
+        pieceMoves(board, myPosition, moves);
+        return moves;
+    }
 
     public enum Directions {
         UP,
@@ -25,11 +43,13 @@ public abstract class MoveCalculator {
         DOWNLEFT
     }
 
-    protected void recursiveCheck(ChessBoard board, ChessPosition recursivePosition, Directions direction) {
-        recursiveCheck(board, recursivePosition, direction, false);
+    protected void recursiveCheck(ChessBoard board, ChessPosition start, ChessPosition recursivePosition,
+                                  Directions direction, Collection<ChessMove> moves) {
+        recursiveCheck(board, start, recursivePosition, direction, false, moves);
     }
 
-    protected void recursiveCheck(ChessBoard board, ChessPosition recursivePosition, Directions direction, Boolean single) {
+    protected void recursiveCheck(ChessBoard board, ChessPosition start, ChessPosition recursivePosition,
+                                  Directions direction, boolean single, Collection<ChessMove> moves) {
 
         ChessPosition squareBeingChecked = getSteppedPosition(recursivePosition, direction);
         // Return if we went off the board and we got null
@@ -37,23 +57,19 @@ public abstract class MoveCalculator {
         // Get the piece on the board
         ChessPiece pieceAtNewSquare = board.getPiece(squareBeingChecked);
         // Get the piece that is moving
-        ChessPiece movingPiece = board.getPiece(this.currentPosition);
+        ChessPiece movingPiece = board.getPiece(start);
         int moveCondition = moveAbility(movingPiece, pieceAtNewSquare);
         if (moveCondition == 0) {
-            makeAndAddMove(this.currentPosition, squareBeingChecked, null);
-            if (Boolean.FALSE.equals(single)) {
-                recursiveCheck(board, squareBeingChecked, direction);
+            moves.add(new ChessMove(start, squareBeingChecked, null));
+            if (!single) {
+                recursiveCheck(board, start, squareBeingChecked, direction, moves);
             }
         } else if (moveCondition == 1) {
-            makeAndAddMove(this.currentPosition, squareBeingChecked, null);
+            moves.add(new ChessMove(start, squareBeingChecked, null));
         }
 
     }
 
-    protected void makeAndAddMove(ChessPosition start, ChessPosition end, ChessPiece.PieceType promotion) {
-        this.moves.add(new ChessMove(start, end, promotion));
-    }
-
     protected int moveAbility(ChessPiece movingPiece, ChessPiece pieceAtNewSquare) {
         // return 0 for open square
         // return 1 for enemy at square
@@ -68,14 +84,14 @@ public abstract class MoveCalculator {
         int col = presentPosition.getColumn();
 
         return switch (direction) {
-            case UP -> row < 8 ? new ChessPosition(row + 1, col) : null;
-            case DOWN -> row > 1 ? new ChessPosition(row - 1, col) : null;
-            case RIGHT -> col < 8 ? new ChessPosition(row, col + 1) : null;
-            case LEFT -> col > 1 ? new ChessPosition(row, col - 1) : null;
-            case UPRIGHT -> row < 8 && col < 8 ? new ChessPosition(row + 1, col + 1) : null;
-            case UPLEFT -> row < 8 && col > 1 ? new ChessPosition(row + 1, col - 1) : null;
-            case DOWNRIGHT -> row > 1 && col < 8 ? new ChessPosition(row - 1, col + 1) : null;
-            case DOWNLEFT -> row > 1 && col > 1 ? new ChessPosition(row - 1, col - 1) : null;
+            case UP -> row < 8 ? ChessPosition.of(row + 1, col) : null;
+            case DOWN -> row > 1 ? ChessPosition.of(row - 1, col) : null;
+            case RIGHT -> col < 8 ? ChessPosition.of(row, col + 1) : null;
+            case LEFT -> col > 1 ? ChessPosition.of(row, col - 1) : null;
+            case UPRIGHT -> row < 8 && col < 8 ? ChessPosition.of(row + 1, col + 1) : null;
+            case UPLEFT -> row < 8 && col > 1 ? ChessPosition.of(row + 1, col - 1) : null;
+            case DOWNRIGHT -> row > 1 && col < 8 ? ChessPosition.of(row - 1, col + 1) : null;
+            case DOWNLEFT -> row > 1 && col > 1 ? ChessPosition.of(row - 1, col - 1) : null;
         };
     }
 }
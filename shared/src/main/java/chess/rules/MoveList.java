@@ -0,0 +1,79 @@
+package chess.rules;
+
+import chess.ChessMove;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable, growable list of packed moves (see PackedMove) backed by an int array
+ */
+public class MoveList {
+
+    // No legal chess position has more than 218 moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(1, size * 2));
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return True if the list holds the move, ignoring flags
+     */
+    public boolean contains(int move) {
+        int target = PackedMove.withoutFlags(move);
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.withoutFlags(moves[i]) == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Converts every move to a ChessMove and adds it to the given collection
+     */
+    public void toChessMoves(Collection<ChessMove> destination) {
+        for (int i = 0; i < size; i++) {
+            destination.add(PackedMove.toChessMove(moves[i]));
+        }
+    }
+}
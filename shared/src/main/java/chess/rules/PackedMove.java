@@ -0,0 +1,80 @@
+package chess.rules;
+
+import chess.Bitboards;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Packs a move into a single int so move lists can be plain int arrays.
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square, using Bitboards square
+ * indexes. Bits 12-14 hold the promotion piece (PieceType ordinal + 1, or 0 for none) and
+ * the bits above that are flags describing the move. Moves are only turned into ChessMove
+ * objects at the API boundary.
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLE = 1 << 18;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << PROMOTION_SHIFT) | flags;
+    }
+
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & SQUARE_MASK;
+    }
+
+    /**
+     * @return the piece type a pawn promotes to, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return promotionBits == 0 ? null : TYPES[promotionBits - 1];
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * @return the move without its flags, which is enough to compare two moves for equality
+     */
+    public static int withoutFlags(int move) {
+        return move & ((PROMOTION_MASK << PROMOTION_SHIFT) | 0xFFF);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.fromSquare(from(move)), ChessPosition.fromSquare(to(move)), promotion(move));
+    }
+
+    /**
+     * Packs a ChessMove without flags; the result matches a generated move after withoutFlags
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+}
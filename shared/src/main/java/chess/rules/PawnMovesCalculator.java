@@ -4,39 +4,44 @@ import java.util.Collection;
 
 
 public class PawnMovesCalculator extends MoveCalculator {
-    @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        this.currentPosition = myPosition;
-        pawnMoves(board, myPosition);
-        return this.moves;
+
+    public static final PawnMovesCalculator INSTANCE = new PawnMovesCalculator();
+
+    private static final Directions[] WHITE_DIAGONALS = new Directions[]{Directions.UPLEFT, Directions.UPRIGHT};
+    private static final Directions[] BLACK_DIAGONALS = new Directions[]{Directions.DOWNLEFT, Directions.DOWNRIGHT};
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private PawnMovesCalculator() {
     }
 
-    private void pawnMoves(ChessBoard board, ChessPosition position) {
+    @Override
+    public void pieceMoves(ChessBoard board, ChessPosition position, Collection<ChessMove> moves) {
         ChessPiece pawn = board.getPiece(position);
         Directions forward;
         Directions[] diagonals;
-        Boolean moveTwoAhead;
+        boolean moveTwoAhead;
 
         if (pawn.getTeamColor() == ChessGame.TeamColor.WHITE) {
             forward = Directions.UP;
-            diagonals = new Directions[]{Directions.UPLEFT, Directions.UPRIGHT};
-            moveTwoAhead = position.getRow() == 2 ? Boolean.TRUE : Boolean.FALSE;
+            diagonals = WHITE_DIAGONALS;
+            moveTwoAhead = position.getRow() == 2;
         } else {
             forward = Directions.DOWN;
-            diagonals = new Directions[]{Directions.DOWNLEFT, Directions.DOWNRIGHT};
-            moveTwoAhead = position.getRow() == 7 ? Boolean.TRUE : Boolean.FALSE;
+            diagonals = BLACK_DIAGONALS;
+            moveTwoAhead = position.getRow() == 7;
         }
         //Look one ahead
         ChessPosition positionAhead = getSteppedPosition(position, forward);
         ChessPiece pieceAhead = board.getPiece(positionAhead);
         if (moveAbility(pawn, pieceAhead) == 0) {
-            addPawnMove(positionAhead, pawn.getTeamColor());
-            if (Boolean.TRUE.equals(moveTwoAhead)) {
+            addPawnMove(position, positionAhead, pawn.getTeamColor(), moves);
+            if (moveTwoAhead) {
                 //Look one ahead
                 ChessPosition position2Ahead = getSteppedPosition(positionAhead, forward);
                 ChessPiece piece2Ahead = board.getPiece(position2Ahead);
                 if (moveAbility(pawn, piece2Ahead) == 0) {
-                    addPawnMove(position2Ahead, pawn.getTeamColor());
+                    addPawnMove(position, position2Ahead, pawn.getTeamColor(), moves);
                 }
             }
         }
@@ -47,23 +52,21 @@ public class PawnMovesCalculator extends MoveCalculator {
             if (diagonalPosition != null) {
                 ChessPiece diagonalPiece = board.getPiece(diagonalPosition);
                 if (moveAbility(pawn, diagonalPiece) == 1) {
-                    addPawnMove(diagonalPosition, pawn.getTeamColor());
+                    addPawnMove(position, diagonalPosition, pawn.getTeamColor(), moves);
                 }
             }
         }
     }
 
-    void addPawnMove(ChessPosition endPosition, ChessGame.TeamColor color) {
-        ChessPiece.PieceType[] promotionTypes = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
-                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
-
+    void addPawnMove(ChessPosition startPosition, ChessPosition endPosition, ChessGame.TeamColor color,
+                     Collection<ChessMove> moves) {
         if ((endPosition.getRow() == 8 && color == ChessGame.TeamColor.WHITE)||
                 (endPosition.getRow() == 1 && color == ChessGame.TeamColor.BLACK)) {
-            for (ChessPiece.PieceType type : promotionTypes) {
-                makeAndAddMove(this.currentPosition, endPosition, type);
+            for (ChessPiece.PieceType type : PROMOTION_TYPES) {
+                moves.add(new ChessMove(startPosition, endPosition, type));
             }
         } else {
-            makeAndAddMove(this.currentPosition, endPosition, null);
+            moves.add(new ChessMove(startPosition, endPosition, null));
         }
     }
 
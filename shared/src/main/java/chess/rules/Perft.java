@@ -0,0 +1,182 @@
+package chess.rules;
+
+import chess.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * <p>
+ * Node counts for well known positions are published, so a mismatch points at a move
+ * generation bug, and nodes per second is a throughput figure for the rules engine.
+ * Run with {@code java chess.rules.Perft <depth> [fen]} for a divide of the starting position,
+ * or of the position given in Forsyth-Edwards Notation.
+ */
+public class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves from the game's current position,
+     * starting with the team whose turn it is. The game itself is not changed.
+     *
+     * @param game  the position to start from
+     * @param depth how many moves deep to count
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game.getBoard().copy(), game.getTeamTurn(), depth);
+    }
+
+    /**
+     * Same as perft, but spread across the threads of a fork/join pool. Each move at the top
+     * of the tree becomes a task on its own copy of the board, and moves near the top are split
+     * again until the subtrees are small enough to count on one thread.
+     *
+     * @param game  the position to start from
+     * @param depth how many moves deep to count
+     * @param pool  the pool to run on, e.g. ForkJoinPool.commonPool()
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessGame game, int depth, ForkJoinPool pool) {
+        return pool.invoke(new PerftTask(game.getBoard().copy(), game.getTeamTurn(), depth));
+    }
+
+    // Fork/join tasks are Serializable through ForkJoinTask but are never serialized
+    @SuppressWarnings("serial")
+    private static final class PerftTask extends RecursiveTask<Long> {
+
+        // Subtrees this shallow take too little time to be worth a task of their own
+        private static final int SERIAL_DEPTH = 3;
+
+        private final ChessBoard board;
+        private final ChessGame.TeamColor color;
+        private final int depth;
+
+        private PerftTask(ChessBoard board, ChessGame.TeamColor color, int depth) {
+            this.board = board;
+            this.color = color;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SERIAL_DEPTH) {
+                return perft(board, color, depth);
+            }
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(board, color).generate(moves);
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessBoard child = board.copy();
+                child.makeMove(moves.get(i));
+                tasks.add(new PerftTask(child, opponent(color), depth - 1));
+            }
+            long nodes = 0;
+            for (PerftTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Same as perft, but broken down by the first move
+     *
+     * @return the node count below each legal move of the current position, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        ChessBoard board = game.getBoard().copy();
+        ChessGame.TeamColor color = game.getTeamTurn();
+        MoveList[] moveLists = moveLists(depth);
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        MoveList moves = new MoveList();
+        new LegalMoveGenerator(board, color).generate(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            MoveUndo undo = board.makeMove(moves.get(i));
+            long nodes = depth <= 1 ? 1L : perft(board, opponent(color), depth - 1, moveLists);
+            board.unmakeMove(undo);
+            counts.put(PackedMove.toChessMove(moves.get(i)), nodes);
+        }
+        return counts;
+    }
+
+    private static long perft(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        return perft(board, color, depth, moveLists(depth));
+    }
+
+    // One reusable move list per remaining depth, so the walk does not allocate lists per node
+    private static MoveList[] moveLists(int depth) {
+        MoveList[] moveLists = new MoveList[Math.max(depth, 0) + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return moveLists;
+    }
+
+    private static long perft(ChessBoard board, ChessGame.TeamColor color, int depth, MoveList[] moveLists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        new LegalMoveGenerator(board, color).generate(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        ChessGame.TeamColor next = opponent(color);
+        for (int i = 0; i < moves.size(); i++) {
+            MoveUndo undo = board.makeMove(moves.get(i));
+            nodes += perft(board, next, depth - 1, moveLists);
+            board.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    /**
+     * @return the move in coordinate form, e.g. e2e4 or a7a8q
+     */
+    public static String toCoordinates(ChessMove move) {
+        String coordinates = move.getStartPosition().getColAsLetter() + move.getStartPosition().getRow()
+                + move.getEndPosition().getColAsLetter() + move.getEndPosition().getRow();
+        if (move.getPromotionPiece() == null) {
+            return coordinates;
+        }
+        return coordinates + switch (move.getPromotionPiece()) {
+            case QUEEN -> "q";
+            case ROOK -> "r";
+            case BISHOP -> "b";
+            case KNIGHT -> "n";
+            default -> "";
+        };
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        ChessGame game = args.length > 1 ? ChessGame.fromFen(args[1]) : new ChessGame();
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()) {
+            System.out.println(toCoordinates(entry.getKey()) + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %d ms%n", elapsed / 1_000_000);
+        System.out.printf("Nodes/second: %d%n", elapsed == 0 ? 0 : total * 1_000_000_000L / elapsed);
+    }
+}
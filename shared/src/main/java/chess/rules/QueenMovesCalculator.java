@@ -8,18 +8,21 @@ import java.util.Collection;
 
 
 public class QueenMovesCalculator extends MoveCalculator {
-    @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        this.currentPosition = myPosition;
-        recursiveCheck(board, myPosition, Directions.UPRIGHT);
-        recursiveCheck(board, myPosition, Directions.UPLEFT);
-        recursiveCheck(board, myPosition, Directions.DOWNRIGHT);
-        recursiveCheck(board, myPosition, Directions.DOWNLEFT);
-        recursiveCheck(board, myPosition, Directions.UP);
-        recursiveCheck(board, myPosition, Directions.DOWN);
-        recursiveCheck(board, myPosition, Directions.LEFT);
-        recursiveCheck(board, myPosition, Directions.RIGHT);
 
-        return this.moves;
+    public static final QueenMovesCalculator INSTANCE = new QueenMovesCalculator();
+
+    private QueenMovesCalculator() {
+    }
+
+    @Override
+    public void pieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
+        recursiveCheck(board, myPosition, myPosition, Directions.UPRIGHT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.UPLEFT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWNRIGHT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWNLEFT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.UP, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWN, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.LEFT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.RIGHT, moves);
     }
 }
@@ -8,13 +8,17 @@ import java.util.Collection;
 
 
 public class RookMovesCalculator extends MoveCalculator {
+
+    public static final RookMovesCalculator INSTANCE = new RookMovesCalculator();
+
+    private RookMovesCalculator() {
+    }
+
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        this.currentPosition = myPosition;
-        recursiveCheck(board, myPosition, Directions.UP);
-        recursiveCheck(board, myPosition, Directions.DOWN);
-        recursiveCheck(board, myPosition, Directions.LEFT);
-        recursiveCheck(board, myPosition, Directions.RIGHT);
-        return this.moves;
+    public void pieceMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessMove> moves) {
+        recursiveCheck(board, myPosition, myPosition, Directions.UP, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.DOWN, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.LEFT, moves);
+        recursiveCheck(board, myPosition, myPosition, Directions.RIGHT, moves);
     }
 }
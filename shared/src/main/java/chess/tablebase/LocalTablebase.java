@@ -0,0 +1,125 @@
+package chess.tablebase;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A tablebase read from memory-mapped files in one directory, written by TablebaseGenerator.
+ * <p>
+ * It covers a king and one queen, rook or pawn against a bare king, one file per piece type
+ * (KQvK.wdl, KRvK.wdl, KPvK.wdl). A file is a 12-byte header (MAGIC, VERSION and the piece type
+ * ordinal) then one byte per position: 0 for a position that cannot occur, otherwise the Wdl
+ * ordinal plus one for the team to move. Positions are stored with the stronger team as white;
+ * if black has the piece, the board is flipped top to bottom and the colors swapped. A file is
+ * mapped the first time a position needs it, and a missing file leaves its positions uncovered.
+ * <p>
+ * Positions where neither team can mate, such as a king and knight against a king, are answered
+ * as draws without any file.
+ */
+public class LocalTablebase implements Tablebase {
+
+    public static final int MAGIC = 0x43544257;
+    public static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    // Stronger team to move or not, stronger king, weaker king, piece
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+
+    private final Path directory;
+    private final Map<ChessPiece.PieceType, Optional<ByteBuffer>> tables = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory where the table files are; it need not exist
+     */
+    public LocalTablebase(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the name of the table for a king and a piece of this type against a king, e.g. KQvK.wdl
+     */
+    public static String fileName(ChessPiece.PieceType type) {
+        String letter = switch (type) {
+            case QUEEN -> "Q";
+            case ROOK -> "R";
+            case BISHOP -> "B";
+            case KNIGHT -> "N";
+            case PAWN -> "P";
+            case KING -> "K";
+        };
+        return "K" + letter + "vK.wdl";
+    }
+
+    static int index(boolean strongerToMove, int strongKing, int weakKing, int piece) {
+        return (((strongerToMove ? 0 : 1) * 64 + strongKing) * 64 + weakKing) * 64 + piece;
+    }
+
+    @Override
+    public Wdl probe(ChessBoard board, ChessGame.TeamColor teamToMove) {
+        if (board.hasInsufficientMaterial()) {
+            return Wdl.DRAW;
+        }
+        Bitboards bitboards = board.getBitboards();
+        if (Long.bitCount(bitboards.occupancy()) != 3) {
+            return null;
+        }
+        for (ChessGame.TeamColor stronger : ChessGame.TeamColor.values()) {
+            ChessGame.TeamColor weaker = stronger == ChessGame.TeamColor.WHITE
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                long piece = bitboards.pieces(stronger, type);
+                if (type == ChessPiece.PieceType.KING || piece == 0) {
+                    continue;
+                }
+                ByteBuffer table = table(type);
+                int strongKing = bitboards.kingSquare(stronger);
+                int weakKing = bitboards.kingSquare(weaker);
+                if (table == null || strongKing < 0 || weakKing < 0) {
+                    return null;
+                }
+                // Tables are stored with the stronger team playing up the board as white
+                int flip = stronger == ChessGame.TeamColor.WHITE ? 0 : 56;
+                int value = table.get(index(teamToMove == stronger, strongKing ^ flip, weakKing ^ flip,
+                        Long.numberOfTrailingZeros(piece) ^ flip));
+                return value == 0 ? null : Wdl.values()[value - 1];
+            }
+        }
+        return null;
+    }
+
+    private ByteBuffer table(ChessPiece.PieceType type) {
+        return tables.computeIfAbsent(type, this::map).orElse(null);
+    }
+
+    private Optional<ByteBuffer> map(ChessPiece.PieceType type) {
+        Path path = directory.resolve(fileName(type));
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + POSITIONS) {
+                throw new IOException("Not a tablebase file: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION || mapped.getInt(8) != type.ordinal()) {
+                throw new IOException("Not a tablebase file, or an unsupported version: " + path);
+            }
+            return Optional.of(mapped.slice(HEADER_BYTES, POSITIONS));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Answers win, draw or loss for endgame positions with few enough pieces, without searching.
+ * <p>
+ * Results assume best play and ignore the fifty-move rule. Castling rights are ignored too,
+ * which only matters for positions that still have rooks on their home squares.
+ */
+public interface Tablebase {
+
+    /**
+     * @param board      the position
+     * @param teamToMove the team whose turn it is
+     * @return the result for teamToMove, or null if the position is not covered
+     */
+    Wdl probe(ChessBoard board, ChessGame.TeamColor teamToMove);
+
+    /**
+     * @return the result for the team whose turn it is in the game, or null if the position is not covered
+     */
+    default Wdl probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+}
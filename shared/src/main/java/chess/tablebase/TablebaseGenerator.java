@@ -0,0 +1,207 @@
+package chess.tablebase;
+
+import chess.*;
+import chess.rules.AttackTables;
+import chess.rules.LegalMoveGenerator;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds the LocalTablebase files by retrograde analysis.
+ * <p>
+ * Every position of the table is set up once to find its legal moves, which are kept as the
+ * indexes of the positions they lead to. Positions with no legal move are mates or stalemates.
+ * The rest are then resolved in passes: a position is a win if some move leads to a loss for the
+ * other team, and a loss if every move leads to a win for them. When a pass changes nothing,
+ * whatever is left is a draw. Captures lead to a bare king against a king, a draw. Promotions
+ * are looked up in the tables already built, so KQvK and KRvK must exist before KPvK.
+ * Run with {@code java chess.tablebase.TablebaseGenerator <directory>} to build every table.
+ */
+public final class TablebaseGenerator {
+
+    private static final byte UNKNOWN = (byte) 0xFF;
+    private static final byte LOSS = (byte) (Wdl.LOSS.ordinal() + 1);
+    private static final byte DRAW = (byte) (Wdl.DRAW.ordinal() + 1);
+    private static final byte WIN = (byte) (Wdl.WIN.ordinal() + 1);
+
+    private static final ChessPiece.PieceType[] TABLES = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.PAWN};
+
+    private TablebaseGenerator() {
+    }
+
+    /**
+     * Builds every table into the directory, creating it if needed
+     */
+    public static void writeAll(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (ChessPiece.PieceType type : TABLES) {
+            // A fresh tablebase each time, so the pawn table sees the tables written before it
+            byte[] table = generate(type, new LocalTablebase(directory));
+            try (OutputStream out = Files.newOutputStream(directory.resolve(LocalTablebase.fileName(type)))) {
+                write(type, table, out);
+            }
+        }
+    }
+
+    /**
+     * Works out the result of every position with a white king and piece against a black king
+     *
+     * @param type       QUEEN, ROOK or PAWN; a lone knight or bishop cannot mate and needs no table
+     * @param promotions answers positions after a pawn promotes; only used for PAWN
+     * @return one byte per position, laid out as LocalTablebase reads them
+     */
+    public static byte[] generate(ChessPiece.PieceType type, Tablebase promotions) {
+        if (type != ChessPiece.PieceType.QUEEN && type != ChessPiece.PieceType.ROOK
+                && type != ChessPiece.PieceType.PAWN) {
+            throw new IllegalArgumentException("No table is needed for a king and " + type + " against a king");
+        }
+        byte[] values = new byte[LocalTablebase.POSITIONS];
+        int[] firstSuccessor = new int[LocalTablebase.POSITIONS + 1];
+        MoveList successors = new MoveList();
+        ChessBoard board = new ChessBoard();
+        board.setCastlingRights(0);
+        ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.WHITE, type);
+        MoveList moves = new MoveList();
+        int[] placed = {-1, -1, -1};
+
+        for (int index = 0; index < LocalTablebase.POSITIONS; index++) {
+            firstSuccessor[index] = successors.size();
+            int pieceSquare = index & 63;
+            int weakKing = index >>> 6 & 63;
+            int strongKing = index >>> 12 & 63;
+            boolean strongerToMove = index >>> 18 == 0;
+            if (!isValid(type, strongKing, weakKing, pieceSquare)) {
+                continue;
+            }
+            place(board, placed, strongKing, weakKing, pieceSquare, piece);
+            ChessGame.TeamColor toMove = strongerToMove ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            ChessGame.TeamColor waiting = strongerToMove ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            if (AttackTables.isSquareAttacked(board.getBitboards(), board.getBitboards().kingSquare(waiting), toMove)) {
+                // The team that just moved cannot have left its king in check
+                continue;
+            }
+
+            moves.clear();
+            LegalMoveGenerator generator = new LegalMoveGenerator(board, toMove);
+            generator.generate(moves);
+            if (moves.isEmpty()) {
+                values[index] = generator.isInCheck() ? LOSS : DRAW;
+                continue;
+            }
+            values[index] = UNKNOWN;
+            for (int i = 0; i < moves.size(); i++) {
+                successors.add(successor(board, moves.get(i), waiting, strongKing, weakKing, pieceSquare,
+                        !strongerToMove, promotions));
+            }
+        }
+        firstSuccessor[LocalTablebase.POSITIONS] = successors.size();
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int index = 0; index < LocalTablebase.POSITIONS; index++) {
+                if (values[index] != UNKNOWN) {
+                    continue;
+                }
+                byte result = LOSS;
+                for (int i = firstSuccessor[index]; i < firstSuccessor[index + 1]; i++) {
+                    int next = successors.get(i);
+                    byte value = next >= 0 ? values[next] : (byte) -next;
+                    if (value == LOSS) {
+                        result = WIN;
+                        break;
+                    }
+                    if (value != WIN) {
+                        result = UNKNOWN;
+                    }
+                }
+                if (result != UNKNOWN) {
+                    values[index] = result;
+                    changed = true;
+                }
+            }
+        }
+        for (int index = 0; index < values.length; index++) {
+            if (values[index] == UNKNOWN) {
+                values[index] = DRAW;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes a table in the LocalTablebase file format; the stream is flushed but not closed
+     */
+    public static void write(ChessPiece.PieceType type, byte[] table, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(LocalTablebase.MAGIC);
+        data.writeInt(LocalTablebase.VERSION);
+        data.writeInt(type.ordinal());
+        data.write(table);
+        data.flush();
+    }
+
+    private static boolean isValid(ChessPiece.PieceType type, int strongKing, int weakKing, int pieceSquare) {
+        if (strongKing == weakKing || strongKing == pieceSquare || weakKing == pieceSquare
+                || (AttackTables.kingAttacks(strongKing) & 1L << weakKing) != 0) {
+            return false;
+        }
+        int row = Bitboards.row(pieceSquare);
+        return type != ChessPiece.PieceType.PAWN || (row != 1 && row != 8);
+    }
+
+    // Clears the squares set by the last call, then sets up the next position
+    private static void place(ChessBoard board, int[] placed, int strongKing, int weakKing, int pieceSquare,
+                              ChessPiece piece) {
+        for (int square : placed) {
+            if (square >= 0) {
+                board.addPiece(ChessPosition.fromSquare(square), null);
+            }
+        }
+        placed[0] = strongKing;
+        placed[1] = weakKing;
+        placed[2] = pieceSquare;
+        board.addPiece(ChessPosition.fromSquare(strongKing), ChessPiece.of(ChessGame.TeamColor.WHITE,
+                ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.fromSquare(weakKing), ChessPiece.of(ChessGame.TeamColor.BLACK,
+                ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.fromSquare(pieceSquare), piece);
+    }
+
+    // The index of the position a move leads to, or minus the value of a position outside this table
+    private static int successor(ChessBoard board, int move, ChessGame.TeamColor waiting, int strongKing,
+                                 int weakKing, int pieceSquare, boolean strongerToMove, Tablebase promotions) {
+        if (PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+            // Only the weaker king captures, leaving two bare kings
+            return -DRAW;
+        }
+        if (PackedMove.promotion(move) != null) {
+            MoveUndo undo = board.makeMove(move);
+            Wdl result = promotions.probe(board, waiting);
+            board.unmakeMove(undo);
+            if (result == null) {
+                throw new IllegalStateException("Generating KPvK needs the KQvK and KRvK tables");
+            }
+            return -(result.ordinal() + 1);
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        return LocalTablebase.index(strongerToMove, from == strongKing ? to : strongKing,
+                from == weakKing ? to : weakKing, from == pieceSquare ? to : pieceSquare);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "tablebase");
+        long start = System.nanoTime();
+        writeAll(directory);
+        System.out.printf("Wrote %s in %d ms%n", directory.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
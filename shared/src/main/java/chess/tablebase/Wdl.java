@@ -0,0 +1,21 @@
+package chess.tablebase;
+
+/**
+ * The result of a position with best play, from the side of the team to move
+ */
+public enum Wdl {
+    LOSS,
+    DRAW,
+    WIN;
+
+    /**
+     * @return the same result from the other team's side
+     */
+    public Wdl opposite() {
+        return switch (this) {
+            case LOSS -> WIN;
+            case DRAW -> DRAW;
+            case WIN -> LOSS;
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static passoff.chess.TestUtilities.loadBoard;
+import static passoff.chess.TestUtilities.move;
+
+class EvaluateStatusTests {
+
+    @Test
+    @DisplayName("Starting position")
+    void startingPosition() {
+        GameStatus status = new ChessGame().evaluateStatus();
+
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, status.teamToMove());
+        Assertions.assertEquals(20, status.legalMoveCount());
+        Assertions.assertFalse(status.inCheck());
+        Assertions.assertFalse(status.isGameOver());
+    }
+
+    @Test
+    @DisplayName("Fool's mate agrees with isInCheckmate")
+    void checkmate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 6, 3, 6));
+        game.makeMove(move(7, 5, 5, 5));
+        game.makeMove(move(2, 7, 4, 7));
+        game.makeMove(move(8, 4, 4, 8));
+
+        GameStatus status = game.evaluateStatus();
+        Assertions.assertTrue(status.isCheckmate());
+        Assertions.assertFalse(status.isStalemate());
+        Assertions.assertTrue(status.isGameOver());
+        Assertions.assertEquals(game.isInCheckmate(ChessGame.TeamColor.WHITE), status.isCheckmate());
+    }
+
+    @Test
+    @DisplayName("Stalemate agrees with isInStalemate")
+    void stalemate() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | |Q|K| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        GameStatus status = game.evaluateStatus();
+        Assertions.assertTrue(status.isStalemate());
+        Assertions.assertFalse(status.inCheck());
+        Assertions.assertEquals(game.isInStalemate(ChessGame.TeamColor.BLACK), status.isStalemate());
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        game.makeMove(move(6, 6, 8, 7));
+    }
+
+    @Test
+    @DisplayName("Third occurrence of a position is a draw")
+    void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertEquals(2, game.evaluateStatus().repetitions());
+        Assertions.assertFalse(game.evaluateStatus().isGameOver());
+
+        shuffleKnights(game);
+        GameStatus status = game.evaluateStatus();
+        Assertions.assertTrue(status.isThreefoldRepetition());
+        Assertions.assertTrue(status.isDraw());
+        Assertions.assertTrue(status.isGameOver());
+    }
+
+    @Test
+    @DisplayName("Repetition count survives a JSON round trip")
+    void repetitionAfterJson() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        ChessGame restored = new Gson().fromJson(game.toJson(), ChessGame.class);
+        shuffleKnights(restored);
+
+        Assertions.assertTrue(restored.evaluateStatus().isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("JSON holds only the moves made, and reading it back restores the history")
+    void historyJson() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(8, 7, 6, 6));
+
+        JsonObject history = JsonParser.parseString(game.toJson()).getAsJsonObject().getAsJsonObject("history");
+        Assertions.assertEquals(Set.of("moves"), history.keySet());
+        Assertions.assertEquals(game.getMoveHistory().size(), history.getAsJsonArray("moves").size());
+
+        ChessGame restored = new Gson().fromJson(game.toJson(), ChessGame.class);
+        Assertions.assertEquals(game.toFen(), restored.toFen());
+        Assertions.assertEquals(game.getMoveHistory(), restored.getMoveHistory());
+        Assertions.assertEquals(game.evaluateStatus(), restored.evaluateStatus());
+        for (int i = 0; i < game.getHistory().size(); i++) {
+            Assertions.assertEquals(game.getHistory().key(i), restored.getHistory().key(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Pawn moves and captures reset the halfmove clock")
+    void halfmoveClock() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        Assertions.assertEquals(2, game.evaluateStatus().halfmoveClock());
+
+        game.makeMove(move(2, 5, 4, 5));
+        Assertions.assertEquals(0, game.evaluateStatus().halfmoveClock());
+        game.makeMove(move(6, 6, 4, 5));
+        Assertions.assertEquals(0, game.evaluateStatus().halfmoveClock());
+    }
+
+    @Test
+    @DisplayName("Hundred moves without a capture or pawn move is a draw")
+    void fiftyMoveRule() {
+        GameStatus status = new GameStatus(ChessGame.TeamColor.WHITE, false, 20, 1, 100, false);
+        Assertions.assertTrue(status.isFiftyMoveDraw());
+        Assertions.assertTrue(status.isGameOver());
+
+        GameStatus mate = new GameStatus(ChessGame.TeamColor.WHITE, true, 0, 1, 100, false);
+        Assertions.assertFalse(mate.isFiftyMoveDraw());
+        Assertions.assertFalse(mate.isDraw());
+    }
+
+    @Test
+    @DisplayName("Positions where neither side can mate are drawn")
+    void insufficientMaterial() {
+        Assertions.assertTrue(ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1").evaluateStatus().isDraw());
+        Assertions.assertTrue(ChessGame.fromFen("4k3/8/8/8/8/8/8/4KN2 w - - 0 1").evaluateStatus().isDraw());
+        Assertions.assertTrue(ChessGame.fromFen("4kb2/8/8/8/8/8/8/2B1K3 b - - 0 1").evaluateStatus().insufficientMaterial());
+
+        // Bishops on opposite colors, two knights, or anything with a pawn can still end in mate
+        Assertions.assertFalse(ChessGame.fromFen("4k1b1/8/8/8/8/8/8/2B1K3 b - - 0 1").evaluateStatus().isDraw());
+        Assertions.assertFalse(ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1").evaluateStatus().isDraw());
+        Assertions.assertFalse(ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").evaluateStatus().isDraw());
+        Assertions.assertFalse(new ChessGame().evaluateStatus().insufficientMaterial());
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoff.chess.TestUtilities.move;
+
+class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Starting position")
+    void startingPosition() {
+        Assertions.assertEquals(START, new ChessGame().toFen());
+        Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(START));
+        Assertions.assertEquals(new ChessGame().getZobristKey(), ChessGame.fromFen(START).getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Round trip keeps every field")
+    void roundTrip() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq - 7 23";
+        Assertions.assertEquals(fen, ChessGame.fromFen(fen).toFen());
+        Assertions.assertEquals(KIWIPETE, ChessGame.fromFen(KIWIPETE).toFen());
+    }
+
+    @Test
+    @DisplayName("Moves update side, castling, en passant and counters")
+    void afterMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        // No black pawn can take on e3, so no en passant square is given
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", game.toFen());
+
+        game.makeMove(move(7, 1, 6, 1));
+        game.makeMove(move(4, 5, 5, 5));
+        game.makeMove(move(7, 6, 5, 6));
+        Assertions.assertEquals("rnbqkbnr/1pppp1pp/p7/4Pp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3", game.toFen());
+
+        game.makeMove(move(1, 5, 2, 5));
+        Assertions.assertEquals("rnbqkbnr/1pppp1pp/p7/4Pp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3", game.toFen());
+    }
+
+    @Test
+    @DisplayName("A board reads its own fields from a full FEN")
+    void boardFromFen() {
+        ChessBoard board = ChessBoard.fromFen(KIWIPETE);
+        Assertions.assertEquals("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R", board.toFen());
+        Assertions.assertEquals(CastlingRights.ALL, board.getCastlingRights());
+        Assertions.assertEquals(board, ChessBoard.fromFen(board.toFen()));
+        Assertions.assertEquals(CastlingRights.NONE, ChessBoard.fromFen("8/8/8/8/8/8/8/R3K2R w - -").getCastlingRights());
+    }
+
+    @Test
+    @DisplayName("Malformed FEN is rejected")
+    void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("9/8/8/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/7x w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w KX - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - e5 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - - x 1"));
+    }
+}
@@ -0,0 +1,120 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoff.chess.TestUtilities.move;
+
+class GameCopyTests {
+
+    @Test
+    @DisplayName("Moves on a copy leave the original untouched, and the other way round")
+    void independent() throws InvalidMoveException {
+        ChessGame original = new ChessGame();
+        original.makeMove(move(2, 5, 4, 5));
+        String json = original.toJson();
+        String fen = original.toFen();
+
+        ChessGame copy = original.copy();
+        Assertions.assertEquals(original, copy);
+        Assertions.assertEquals(original.getZobristKey(), copy.getZobristKey());
+        copy.makeMove(move(7, 5, 5, 5));
+        copy.makeMove(move(1, 7, 3, 6));
+
+        Assertions.assertEquals(json, original.toJson());
+        Assertions.assertEquals(fen, original.toFen());
+        Assertions.assertEquals(1, original.getMoveHistory().size());
+        Assertions.assertEquals(3, copy.getMoveHistory().size());
+
+        original.makeMove(move(7, 4, 5, 4));
+        Assertions.assertNull(copy.getBoard().getPiece(new ChessPosition(5, 4)));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                copy.getBoard().getPiece(new ChessPosition(5, 5)));
+    }
+
+    @Test
+    @DisplayName("Writing into the array from getBoard changes neither the board nor its copies")
+    void pieceArrayIsNotShared() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard copy = board.copy();
+
+        copy.getBoard()[1][4] = null;
+        Assertions.assertNotNull(board.getPiece(new ChessPosition(2, 5)));
+        Assertions.assertNotNull(copy.getPiece(new ChessPosition(2, 5)));
+        board.getBoard()[0][0] = null;
+        Assertions.assertNotNull(copy.getPiece(new ChessPosition(1, 1)));
+        Assertions.assertNotNull(board.getPiece(new ChessPosition(1, 1)));
+    }
+
+    @Test
+    @DisplayName("Check detection and move generation ignore writes into the array from getBoard")
+    void pieceArrayWritesKeepIndex() {
+        ChessGame game = ChessGame.fromFen("4r1k1/8/8/8/8/8/3P4/4K3 w - - 0 1");
+        int moveCount = game.legalMoves(ChessGame.TeamColor.WHITE).size();
+
+        ChessPiece[][] pieces = game.getBoard().getBoard();
+        pieces[0][4] = null;
+        pieces[7][4] = null;
+
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(moveCount, game.legalMoves(ChessGame.TeamColor.WHITE).size());
+        Assertions.assertEquals(4, game.getBoard().getBitboards().kingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(game.getBoard(), ChessBoard.fromFen("4r1k1/8/8/8/8/8/3P4/4K3"));
+    }
+
+    @Test
+    @DisplayName("A copy carries the repetition count and game over flag")
+    void historyAndFlags() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(move(1, 7, 3, 6));
+            game.makeMove(move(8, 7, 6, 6));
+            game.makeMove(move(3, 6, 1, 7));
+            game.makeMove(move(6, 6, 8, 7));
+        }
+        game.setGameOver(true);
+
+        ChessGame copy = game.copy();
+        Assertions.assertTrue(copy.evaluateStatus().isThreefoldRepetition());
+        Assertions.assertTrue(copy.isGameOver());
+
+        // A copy of a copy is just as independent
+        ChessGame second = copy.copy();
+        second.setGameOver(false);
+        second.makeMove(move(2, 5, 4, 5));
+        Assertions.assertEquals(8, copy.getMoveHistory().size());
+        Assertions.assertTrue(copy.isGameOver());
+    }
+
+    @Test
+    @DisplayName("A frozen game cannot change, and its copies share rows only until they move")
+    void frozen() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.freeze();
+        String json = game.toJson();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> game.makeMove(move(7, 5, 5, 5)));
+        Assertions.assertThrows(IllegalStateException.class, () -> game.setGameOver(true));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> game.getBoard().addPiece(new ChessPosition(4, 4), null));
+        game.getBoard().getBoard()[0][0] = null;
+        Assertions.assertNotNull(game.getBoard().getPiece(new ChessPosition(1, 1)));
+
+        ChessGame first = game.copy();
+        ChessGame second = game.copy();
+        Assertions.assertFalse(first.isFrozen());
+        first.makeMove(move(7, 5, 5, 5));
+        second.makeMove(move(7, 4, 5, 4));
+        second.setGameOver(true);
+
+        Assertions.assertEquals(json, game.toJson());
+        Assertions.assertEquals(1, game.evaluateStatus().repetitions());
+        Assertions.assertNull(first.getBoard().getPiece(new ChessPosition(7, 5)));
+        Assertions.assertNotNull(second.getBoard().getPiece(new ChessPosition(7, 5)));
+        Assertions.assertEquals(first.getBoard(), ChessBoard.fromFen(first.toFen().split(" ")[0]));
+        Assertions.assertEquals(first.getZobristKey(), ChessGame.fromFen(first.toFen()).getZobristKey());
+    }
+}
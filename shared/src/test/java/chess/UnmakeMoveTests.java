@@ -0,0 +1,61 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoff.chess.TestUtilities.move;
+
+class UnmakeMoveTests {
+
+    private static void assertUnmakeRestores(String fen, ChessMove move) {
+        ChessBoard board = ChessGame.fromFen(fen).getBoard();
+        ChessBoard before = board.copy();
+        int hash = board.hashCode();
+        long key = board.getZobristKey();
+        int castlingRights = board.getCastlingRights();
+        int enPassantSquare = board.getEnPassantSquare();
+
+        MoveUndo undo = board.makeMove(move);
+        Assertions.assertNotEquals(before, board);
+        board.unmakeMove(undo);
+
+        Assertions.assertEquals(before, board);
+        Assertions.assertEquals(hash, board.hashCode());
+        Assertions.assertEquals(key, board.getZobristKey());
+        Assertions.assertEquals(Zobrist.keyOf(board), board.getZobristKey());
+        Assertions.assertEquals(castlingRights, board.getCastlingRights());
+        Assertions.assertEquals(enPassantSquare, board.getEnPassantSquare());
+    }
+
+    @Test
+    @DisplayName("Quiet moves and captures")
+    void quietAndCapture() {
+        assertUnmakeRestores("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", move(1, 7, 3, 6));
+        assertUnmakeRestores("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2", move(4, 5, 5, 4));
+    }
+
+    @Test
+    @DisplayName("Castling puts the rook back and restores the rights")
+    void castling() {
+        assertUnmakeRestores("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", move(1, 5, 1, 7));
+        assertUnmakeRestores("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", move(8, 5, 8, 3));
+        // A rook move loses one right, which unmaking gives back
+        assertUnmakeRestores("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", move(1, 1, 2, 1));
+    }
+
+    @Test
+    @DisplayName("En passant returns the captured pawn to its own square")
+    void enPassant() {
+        assertUnmakeRestores("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2", move(5, 5, 6, 4));
+        // A double push sets the en passant square, which unmaking clears
+        assertUnmakeRestores("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1", move(2, 5, 4, 5));
+    }
+
+    @Test
+    @DisplayName("Promotion turns the new piece back into a pawn")
+    void promotion() {
+        assertUnmakeRestores("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1",
+                new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.QUEEN));
+    }
+}
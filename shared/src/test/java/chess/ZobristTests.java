@@ -0,0 +1,66 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoff.chess.TestUtilities.move;
+
+class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental key matches a key computed from scratch")
+    void incrementalMatchesScratch() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 4, 5, 4));
+        game.makeMove(move(4, 5, 5, 4));
+
+        ChessBoard board = game.getBoard();
+        Assertions.assertEquals(Zobrist.keyOf(board), board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Unmaking a move restores the key")
+    void unmakeRestoresKey() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long before = board.getZobristKey();
+
+        MoveUndo undo = board.makeMove(move(1, 7, 3, 6));
+        Assertions.assertNotEquals(before, board.getZobristKey());
+        board.unmakeMove(undo);
+        Assertions.assertEquals(before, board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Transpositions share a key and side to move changes it")
+    void transpositionsAndSideToMove() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(move(1, 7, 3, 6));
+        first.makeMove(move(8, 7, 6, 6));
+        first.makeMove(move(1, 2, 3, 3));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(move(1, 2, 3, 3));
+        second.makeMove(move(8, 7, 6, 6));
+        second.makeMove(move(1, 7, 3, 6));
+
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+
+        second.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertNotEquals(first.getZobristKey(), second.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Key survives a JSON round trip")
+    void jsonRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 4, 4, 4));
+        ChessGame restored = new Gson().fromJson(game.toJson(), ChessGame.class);
+
+        Assertions.assertEquals(game.getZobristKey(), restored.getZobristKey());
+    }
+}
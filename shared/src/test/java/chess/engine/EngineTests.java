@@ -0,0 +1,135 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static passoff.chess.TestUtilities.move;
+
+class EngineTests {
+
+    private static final Duration SECOND = Duration.ofSeconds(1);
+
+    @Test
+    @DisplayName("Finds mate in one")
+    void mateInOne() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Engine().search(game, SECOND);
+
+        Assertions.assertEquals(move(1, 1, 8, 1), result.bestMove());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    @DisplayName("Takes a hanging queen")
+    void winsMaterial() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        Assertions.assertEquals(move(1, 4, 5, 4), new Engine().bestMove(game, SECOND));
+    }
+
+    @Test
+    @DisplayName("Gets out of a mate threat it would otherwise walk into")
+    void defends() {
+        // Black threatens Qxg2#; the engine must cover g2
+        ChessGame game = ChessGame.fromFen("r1b1k1nr/pppp1ppp/2n5/2b1p3/4P2q/2N2N2/PPPP1PPP/R1BQKB1R w KQkq - 0 1");
+        SearchResult result = new Engine().search(game, SECOND);
+        Assertions.assertTrue(result.score() > -Search.MATE + Search.MAX_PLY);
+    }
+
+    @Test
+    @DisplayName("No move when there are no legal moves")
+    void noLegalMoves() {
+        ChessGame game = ChessGame.fromFen("k7/8/1QK5/8/8/8/8/8 b - - 0 1");
+        Assertions.assertNull(new Engine().bestMove(game, SECOND));
+    }
+
+    @Test
+    @DisplayName("Stays within its time budget and leaves the game untouched")
+    void timeLimit() {
+        ChessGame game = new ChessGame();
+        long start = System.nanoTime();
+        SearchResult result = new Engine().search(game, Duration.ofMillis(200));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertTrue(elapsed < 1000, "Search took " + elapsed + " ms");
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    @Test
+    @DisplayName("Asynchronous search answers on another thread")
+    void async() throws Exception {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        ChessMove move = new Engine().bestMoveAsync(game, SECOND).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(move(1, 1, 8, 1), move);
+    }
+
+    @Test
+    @DisplayName("Lazy SMP search finds the same mate and gives its helper threads back")
+    void helperThreads() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Engine(4).search(game, SECOND);
+
+        Assertions.assertEquals(move(1, 1, 8, 1), result.bestMove());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+        Assertions.assertEquals(0, SearchThreads.inUse());
+    }
+
+    @Test
+    @DisplayName("Searches still run on one thread when the global budget is used up")
+    void threadBudget() {
+        int limit = SearchThreads.limit();
+        SearchThreads.setLimit(1);
+        try {
+            ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+            Assertions.assertEquals(move(1, 4, 5, 4), new Engine(8).bestMove(game, SECOND));
+            Assertions.assertEquals(0, SearchThreads.inUse());
+        } finally {
+            SearchThreads.setLimit(limit);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SearchThreads.setLimit(0));
+    }
+
+    @Test
+    @DisplayName("Concurrent searches queue instead of going over the global budget")
+    void concurrentSearchesQueue() throws Exception {
+        int limit = SearchThreads.limit();
+        SearchThreads.setLimit(1);
+        try {
+            AtomicInteger mostInUse = new AtomicInteger();
+            AtomicBoolean done = new AtomicBoolean();
+            Thread watcher = new Thread(() -> {
+                while (!done.get()) {
+                    mostInUse.accumulateAndGet(SearchThreads.inUse(), Math::max);
+                }
+            });
+            watcher.start();
+
+            ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+            Duration shortLimit = Duration.ofMillis(200);
+            CompletableFuture<ChessMove> first = new Engine(4).bestMoveAsync(game, shortLimit);
+            CompletableFuture<ChessMove> second = new Engine(4).bestMoveAsync(game, shortLimit);
+            ChessMove third = new Engine(4).bestMove(game, shortLimit);
+            CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+            done.set(true);
+            watcher.join();
+
+            Assertions.assertEquals(1, mostInUse.get());
+            Assertions.assertEquals(move(1, 4, 5, 4), first.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(move(1, 4, 5, 4), second.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(move(1, 4, 5, 4), third);
+            Assertions.assertEquals(0, SearchThreads.inUse());
+        } finally {
+            SearchThreads.setLimit(limit);
+        }
+    }
+}
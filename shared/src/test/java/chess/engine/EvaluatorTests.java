@@ -0,0 +1,87 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static passoff.chess.TestUtilities.move;
+
+class EvaluatorTests {
+
+    @Test
+    @DisplayName("The starting position is level")
+    void startingPosition() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0, Evaluator.evaluate(game));
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, game.getBoard().getGamePhase());
+    }
+
+    @Test
+    @DisplayName("Incremental score matches a board built from scratch, through captures, castling and en passant")
+    void incrementalMatchesScratch() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 4, 5, 4));
+        game.makeMove(move(4, 5, 5, 4));
+        game.makeMove(move(7, 3, 5, 3));
+        game.makeMove(move(5, 4, 6, 3));
+        game.makeMove(move(8, 2, 6, 3));
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 3, 4, 7));
+        game.makeMove(move(1, 6, 2, 5));
+        game.makeMove(move(4, 7, 3, 6));
+        game.makeMove(move(1, 5, 1, 7));
+
+        ChessBoard fresh = ChessBoard.fromFen(game.toFen().split(" ")[0]);
+        Assertions.assertEquals(Evaluator.evaluate(fresh), Evaluator.evaluate(game));
+        Assertions.assertEquals(fresh.getGamePhase(), game.getBoard().getGamePhase());
+    }
+
+    @Test
+    @DisplayName("Unmaking a move restores the score")
+    void unmakeRestoresScore() {
+        ChessBoard board = ChessBoard.fromFen("4k3/8/8/3q4/8/8/8/3RK3");
+        int before = Evaluator.evaluate(board);
+
+        MoveUndo undo = board.makeMove(move(1, 4, 5, 4));
+        Assertions.assertTrue(Evaluator.evaluate(board) > before);
+        board.unmakeMove(undo);
+        Assertions.assertEquals(before, Evaluator.evaluate(board));
+    }
+
+    @Test
+    @DisplayName("Mirrored positions score the same for the other side")
+    void symmetry() {
+        ChessBoard white = ChessBoard.fromFen("4k3/8/8/8/3N4/8/2P5/4K3");
+        ChessBoard black = ChessBoard.fromFen("4k3/2p5/8/3n4/8/8/8/4K3");
+
+        Assertions.assertTrue(Evaluator.evaluate(white) > 0);
+        Assertions.assertEquals(Evaluator.evaluate(white), -Evaluator.evaluate(black));
+        Assertions.assertEquals(Evaluator.evaluate(white, ChessGame.TeamColor.WHITE),
+                Evaluator.evaluate(black, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Kings head for the centre once the pieces are gone")
+    void endgameKing() {
+        ChessBoard corner = ChessBoard.fromFen("4k3/8/8/8/8/8/8/K7");
+        ChessBoard centre = ChessBoard.fromFen("4k3/8/8/8/3K4/8/8/8");
+
+        Assertions.assertEquals(0, corner.getGamePhase());
+        Assertions.assertTrue(Evaluator.evaluate(centre) > Evaluator.evaluate(corner));
+    }
+
+    @Test
+    @DisplayName("Batch evaluation scores each game in order")
+    void batch() {
+        ChessGame start = new ChessGame();
+        ChessGame upQueen = ChessGame.fromFen("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        int[] scores = Evaluator.evaluate(List.of(start, upQueen, start));
+
+        Assertions.assertArrayEquals(new int[]{0, Evaluator.evaluate(upQueen), 0}, scores);
+        Assertions.assertTrue(scores[1] > 800);
+    }
+}
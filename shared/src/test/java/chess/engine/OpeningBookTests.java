@@ -0,0 +1,111 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static passoff.chess.TestUtilities.move;
+
+class OpeningBookTests {
+
+    @TempDir
+    Path directory;
+
+    private static ChessGame play(ChessMove... moves) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+        }
+        return game;
+    }
+
+    private OpeningBook build(OpeningBookBuilder builder) throws IOException {
+        Path path = directory.resolve("book.bin");
+        builder.write(path);
+        return OpeningBook.open(path);
+    }
+
+    @Test
+    @DisplayName("Games written to a book are found again, heaviest move first")
+    void roundTrip() throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        builder.addGame(play(move(2, 5, 4, 5), move(7, 5, 5, 5), move(1, 7, 3, 6)), 10);
+        builder.addGame(play(move(2, 5, 4, 5), move(7, 3, 5, 3)), 10);
+        builder.addGame(play(move(2, 4, 4, 4), move(7, 4, 5, 4)), 1);
+        OpeningBook book = build(builder);
+
+        Assertions.assertEquals(5, book.size());
+        List<OpeningBook.BookMove> start = book.moves(new ChessGame());
+        Assertions.assertEquals(List.of(new OpeningBook.BookMove(move(2, 5, 4, 5), 2),
+                new OpeningBook.BookMove(move(2, 4, 4, 4), 1)), start);
+
+        List<OpeningBook.BookMove> afterE4 = book.moves(play(move(2, 5, 4, 5)));
+        Assertions.assertEquals(2, afterE4.size());
+        // The d4 game stopped after one ply
+        Assertions.assertTrue(book.moves(play(move(2, 4, 4, 4))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Transpositions share their book moves")
+    void transpositions() throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        ChessGame viaKnight = play(move(1, 7, 3, 6), move(8, 7, 6, 6), move(2, 4, 4, 4));
+        builder.add(viaKnight, move(7, 4, 5, 4), 5);
+        OpeningBook book = build(builder);
+
+        ChessGame viaPawn = play(move(2, 4, 4, 4), move(8, 7, 6, 6), move(1, 7, 3, 6));
+        Assertions.assertEquals(move(7, 4, 5, 4), book.pick(viaPawn));
+    }
+
+    @Test
+    @DisplayName("Picks follow the weights")
+    void weightedPick() throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        ChessGame start = new ChessGame();
+        builder.add(start, move(2, 5, 4, 5), 9);
+        builder.add(start, move(2, 4, 4, 4), 1);
+        OpeningBook book = build(builder);
+
+        SplittableRandom random = new SplittableRandom(1);
+        int e4 = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (move(2, 5, 4, 5).equals(book.pick(start, random))) {
+                e4++;
+            }
+        }
+        Assertions.assertTrue(e4 > 850 && e4 < 950, "e4 picked " + e4 + " times");
+        Assertions.assertNull(book.pick(play(move(2, 1, 3, 1)), random));
+    }
+
+    @Test
+    @DisplayName("The engine plays book moves without searching")
+    void engineUsesBook() throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        builder.add(new ChessGame(), move(2, 3, 4, 3), 1);
+        Engine engine = new Engine();
+        engine.setOpeningBook(build(builder));
+
+        SearchResult result = engine.search(new ChessGame(), Duration.ofSeconds(1));
+        Assertions.assertEquals(move(2, 3, 4, 3), result.bestMove());
+        Assertions.assertEquals(0, result.nodes());
+    }
+
+    @Test
+    @DisplayName("Other files are rejected")
+    void notABook() throws IOException {
+        Path path = directory.resolve("other.bin");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(path));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new OpeningBookBuilder().add(new ChessGame(), move(2, 5, 4, 5), 0));
+    }
+}
@@ -0,0 +1,68 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.rules.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stored entries read back")
+    void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        int move = PackedMove.of(12, 28, PackedMove.DOUBLE_PUSH);
+        table.store(key, move, -37, 9, TranspositionTable.LOWER_BOUND, 3);
+
+        long entry = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-37, TranspositionTable.score(entry, 3));
+        Assertions.assertEquals(9, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        Assertions.assertEquals(0, table.probe(key + 1));
+    }
+
+    @Test
+    @DisplayName("Mate scores are stored relative to the position")
+    void mateScores() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42, 0, Search.MATE - 7, 4, TranspositionTable.EXACT, 5);
+
+        // Mate two moves after a position at ply 5 is mate two moves after the same position at ply 1
+        Assertions.assertEquals(Search.MATE - 3, TranspositionTable.score(table.probe(42), 1));
+    }
+
+    @Test
+    @DisplayName("Deeper entries from the current search are kept over shallower ones")
+    void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long first = 5;
+        long collides = first + (1L << 40);
+        table.store(first, 0, 10, 8, TranspositionTable.EXACT, 0);
+        table.store(collides, 0, 20, 2, TranspositionTable.EXACT, 0);
+        Assertions.assertNotEquals(0, table.probe(first));
+        Assertions.assertEquals(0, table.probe(collides));
+
+        table.newSearch();
+        table.store(collides, 0, 20, 2, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(0, table.probe(first));
+        Assertions.assertNotEquals(0, table.probe(collides));
+    }
+
+    @Test
+    @DisplayName("A shared table carries work from one search to the next")
+    void sharedBetweenSearches() {
+        TranspositionTable table = new TranspositionTable(4);
+        Engine engine = new Engine(table, Executors.newSingleThreadExecutor(), 5);
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+
+        long firstNodes = engine.search(game, Duration.ofSeconds(10)).nodes();
+        long secondNodes = engine.search(game, Duration.ofSeconds(10)).nodes();
+        Assertions.assertTrue(secondNodes < firstNodes, firstNodes + " then " + secondNodes);
+    }
+}
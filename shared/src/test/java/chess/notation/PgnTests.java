@@ -0,0 +1,133 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.rules.LegalMoveCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+class PgnTests {
+
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [Site "Paris FRA"]
+            [Date "1858.??.??"]
+            [Round "?"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3
+            5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6 9. Bg5 (9. Qxb7 Qb4+) 9... b5 $6
+            10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 14. Rd1 Qe6
+            15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+            """;
+
+    private static final String OPERA_FINAL_FEN = "1n1Rkb1r/p4ppp/4q3/4p1B1/4P3/8/PPP2PPP/2K5 b k - 1 17";
+
+    @Test
+    @DisplayName("Reads tags and replays moves, skipping comments, variations and glyphs")
+    void readGame() throws IOException, InvalidMoveException {
+        PgnReader reader = new PgnReader(new StringReader(OPERA_GAME));
+        PgnGame game = reader.next();
+
+        Assertions.assertEquals("Paul Morphy", game.tags().get("White"));
+        Assertions.assertEquals("1-0", game.result());
+        Assertions.assertEquals(33, game.game().getMoveHistory().size());
+        Assertions.assertEquals(OPERA_FINAL_FEN, game.game().toFen());
+        Assertions.assertTrue(game.game().isInCheckmate(ChessGame.TeamColor.BLACK));
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Reads games one after another")
+    void readSeveral() throws IOException, InvalidMoveException {
+        String text = OPERA_GAME + "\n[Event \"Short\"]\n\n1. f3 e5 2. g4 Qh4# 0-1\n\n1. e4 *\n";
+        PgnReader reader = new PgnReader(new StringReader(text));
+
+        Assertions.assertEquals("Paris", reader.next().tags().get("Event"));
+        Assertions.assertEquals("0-1", reader.next().result());
+        PgnGame last = reader.next();
+        Assertions.assertEquals("*", last.result());
+        Assertions.assertEquals(1, last.game().getMoveHistory().size());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Skips lines escaped with %, but not a % inside a line")
+    void escapedLines() throws IOException, InvalidMoveException {
+        String text = "% exported by some tool 1. d4\n[Event \"Escaped\"]\n\n1. f3 e5\n%2. a3 a6\n"
+                + "2. g4 Qh4# {100% lost} 0-1\n";
+        PgnGame game = new PgnReader(new StringReader(text)).next();
+
+        Assertions.assertEquals("Escaped", game.tags().get("Event"));
+        Assertions.assertEquals("0-1", game.result());
+        Assertions.assertEquals(4, game.game().getMoveHistory().size());
+        Assertions.assertTrue(game.game().isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Starts from a FEN tag")
+    void readFromFen() throws IOException, InvalidMoveException {
+        String text = """
+                [FEN "4k3/P7/8/8/8/8/8/4K3 w - - 0 40"]
+                [SetUp "1"]
+
+                40. a8=Q+ Kd7 *
+                """;
+        PgnGame game = new PgnReader(new StringReader(text)).next();
+        Assertions.assertEquals("Q7/3k4/8/8/8/8/8/4K3 w - - 1 41", game.game().toFen());
+    }
+
+    @Test
+    @DisplayName("Replaying an import leaves the shared move cache alone")
+    void importSkipsSharedCache() throws IOException, InvalidMoveException {
+        long misses = LegalMoveCache.SHARED.misses();
+        long hits = LegalMoveCache.SHARED.hits();
+        PgnGame game = new PgnReader(new StringReader(OPERA_GAME)).next();
+
+        Assertions.assertEquals(misses, LegalMoveCache.SHARED.misses());
+        Assertions.assertEquals(hits, LegalMoveCache.SHARED.hits());
+        Assertions.assertSame(LegalMoveCache.SHARED, game.game().getMoveCache());
+    }
+
+    @Test
+    @DisplayName("Illegal moves are reported")
+    void illegalMove() {
+        PgnReader reader = new PgnReader(new StringReader("1. e4 e5 2. Ke3 *"));
+        Assertions.assertThrows(InvalidMoveException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("Written games read back the same")
+    void writeAndRead() throws IOException, InvalidMoveException {
+        PgnGame original = new PgnReader(new StringReader(OPERA_GAME)).next();
+        StringWriter text = new StringWriter();
+        new PgnWriter(text).write(original);
+
+        Assertions.assertTrue(text.toString().contains("12. O-O-O Rd8 13. Rxd7 Rxd7"));
+        Assertions.assertTrue(text.toString().contains("17. Rd8# 1-0"));
+        PgnGame copy = new PgnReader(new StringReader(text.toString())).next();
+        Assertions.assertEquals(original.tags(), copy.tags());
+        Assertions.assertEquals(OPERA_FINAL_FEN, copy.game().toFen());
+    }
+
+    @Test
+    @DisplayName("Writes a game that started from a set-up position")
+    void writeFromFen() throws IOException, InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K2R b KQ - 0 30");
+        game.makeMove(San.parse(game, "Kd7"));
+        game.makeMove(San.parse(game, "O-O-O+"));
+        StringWriter text = new StringWriter();
+        new PgnWriter(text).write(game, Map.of("Event", "Test"));
+
+        Assertions.assertTrue(text.toString().contains("[FEN \"4k3/8/8/8/8/8/8/R3K2R b KQ - 0 30\"]"));
+        Assertions.assertTrue(text.toString().contains("30... Kd7 31. O-O-O+ *"));
+    }
+}
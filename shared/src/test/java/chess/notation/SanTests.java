@@ -0,0 +1,71 @@
+package chess.notation;
+
+import chess.*;
+import chess.rules.LegalMoveCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoff.chess.TestUtilities.move;
+
+class SanTests {
+
+    private static void assertRoundTrip(String fen, ChessMove move, String san) throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(fen);
+        Assertions.assertEquals(san, San.format(game, move));
+        Assertions.assertEquals(move, San.parse(game, san));
+    }
+
+    @Test
+    @DisplayName("Pawn, piece, capture and castling moves")
+    void basicMoves() throws InvalidMoveException {
+        String start = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+        assertRoundTrip(start, move(2, 5, 4, 5), "e4");
+        assertRoundTrip(start, move(1, 7, 3, 6), "Nf3");
+        assertRoundTrip("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2", move(4, 5, 5, 4), "exd5");
+        assertRoundTrip("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", move(1, 5, 1, 7), "O-O");
+        assertRoundTrip("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", move(8, 5, 8, 3), "O-O-O");
+        assertRoundTrip("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2", move(5, 5, 6, 4), "exd6");
+    }
+
+    @Test
+    @DisplayName("Promotion, check and checkmate")
+    void promotionAndCheck() throws InvalidMoveException {
+        ChessMove promote = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        assertRoundTrip("8/P3k3/8/8/8/8/8/4K3 w - - 0 1", promote, "a8=Q");
+        ChessMove check = new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 5), ChessPiece.PieceType.ROOK);
+        assertRoundTrip("1k6/4P3/8/8/8/8/8/4K3 w - - 0 1", check, "e8=R+");
+        assertRoundTrip("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", move(1, 1, 8, 1), "Ra8#");
+    }
+
+    @Test
+    @DisplayName("Disambiguates by file, then rank, then both")
+    void disambiguation() throws InvalidMoveException {
+        assertRoundTrip("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", move(1, 2, 2, 4), "Nbd2");
+        assertRoundTrip("4k3/8/8/R7/8/8/8/R3K3 w - - 0 1", move(1, 1, 3, 1), "R1a3");
+        assertRoundTrip("1k6/8/8/8/4Q2Q/8/8/K6Q w - - 0 1", move(4, 8, 1, 5), "Qh4e1");
+        // A pinned knight cannot make the move, so no disambiguation is needed
+        assertRoundTrip("4k3/4r3/8/8/8/8/4N3/2N1K3 w - - 0 1", move(1, 3, 3, 4), "Nd3");
+    }
+
+    @Test
+    @DisplayName("Illegal moves are rejected")
+    void illegalMoves() {
+        ChessGame game = new ChessGame();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.format(game, move(2, 5, 5, 5)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.format(game, move(7, 5, 5, 5)));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.parse(game, "e5"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.parse(game, "Zz9"));
+    }
+
+    @Test
+    @DisplayName("Writing a move leaves the next position's moves cached")
+    void reusesCachedMoves() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        Assertions.assertEquals("Bb5", San.format(game, move(1, 6, 5, 2)));
+        long misses = LegalMoveCache.SHARED.misses();
+        game.makeMove(move(1, 6, 5, 2));
+        game.evaluateStatus();
+        Assertions.assertEquals(misses, LegalMoveCache.SHARED.misses());
+    }
+}
@@ -0,0 +1,51 @@
+package chess.rules;
+
+import chess.ChessGame;
+import chess.GameStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class BulkAnalyzerTests {
+
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3",
+            "k7/8/1QK5/8/8/8/8/8 b - - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - - 100 80",
+    };
+
+    @Test
+    @DisplayName("Parallel perft matches serial perft")
+    void parallelPerft() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ChessGame start = new ChessGame();
+        Assertions.assertEquals(Perft.perft(start, 5), Perft.perft(start, 5, pool));
+        ChessGame kiwipete = ChessGame.fromFen(POSITIONS[3]);
+        Assertions.assertEquals(4085603, Perft.perft(kiwipete, 4, pool));
+        Assertions.assertEquals(20, Perft.perft(start, 1, pool));
+    }
+
+    @Test
+    @DisplayName("Bulk status matches evaluateStatus game by game, in order")
+    void bulkStatus() {
+        List<ChessGame> games = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            games.add(ChessGame.fromFen(POSITIONS[i % POSITIONS.length]));
+        }
+        List<GameStatus> statuses = BulkAnalyzer.evaluateStatus(games, ForkJoinPool.commonPool());
+
+        Assertions.assertEquals(games.size(), statuses.size());
+        for (int i = 0; i < games.size(); i++) {
+            Assertions.assertEquals(games.get(i).evaluateStatus(), statuses.get(i));
+        }
+        Assertions.assertTrue(statuses.get(1).isCheckmate());
+        Assertions.assertTrue(statuses.get(2).isStalemate());
+        Assertions.assertTrue(statuses.get(4).isFiftyMoveDraw());
+    }
+}
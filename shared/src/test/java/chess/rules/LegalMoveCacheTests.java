@@ -0,0 +1,90 @@
+package chess.rules;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+class LegalMoveCacheTests {
+
+    private static ChessBoard startingBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        return board;
+    }
+
+    @Test
+    @DisplayName("Second lookup of a position is a hit with the same moves")
+    void repeatedLookupHits() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        ChessBoard board = startingBoard();
+
+        LegalMoveCache.Entry first = cache.lookup(board, ChessGame.TeamColor.WHITE);
+        LegalMoveCache.Entry second = cache.lookup(startingBoard(), ChessGame.TeamColor.WHITE);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(1, cache.misses());
+        Assertions.assertEquals(new HashSet<>(LegalMoveGenerator.legalMoves(board, ChessGame.TeamColor.WHITE)),
+                new HashSet<>(first.moves()));
+    }
+
+    @Test
+    @DisplayName("Each team is cached separately")
+    void teamsAreSeparate() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        ChessBoard board = startingBoard();
+
+        cache.lookup(board, ChessGame.TeamColor.WHITE);
+        LegalMoveCache.Entry black = cache.lookup(board, ChessGame.TeamColor.BLACK);
+
+        Assertions.assertEquals(2, cache.misses());
+        Assertions.assertEquals(2, black.movesFrom(Bitboards.square(new ChessPosition(8, 2))).size());
+    }
+
+    @Test
+    @DisplayName("Least recently used position is evicted when full")
+    void evictsLeastRecentlyUsed() {
+        LegalMoveCache cache = new LegalMoveCache(2);
+        ChessBoard start = startingBoard();
+        ChessBoard afterE4 = startingBoard();
+        afterE4.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessBoard afterD4 = startingBoard();
+        afterD4.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+
+        cache.lookup(start, ChessGame.TeamColor.BLACK);
+        cache.lookup(afterE4, ChessGame.TeamColor.BLACK);
+        cache.lookup(start, ChessGame.TeamColor.BLACK);
+        cache.lookup(afterD4, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(2, cache.size());
+
+        cache.lookup(start, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(2, cache.hits());
+        cache.lookup(afterE4, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(4, cache.misses());
+    }
+
+    @Test
+    @DisplayName("A different position with the same key is a miss, not the other position's moves")
+    void keyCollisionIsAMiss() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        ChessBoard start = startingBoard();
+        ChessBoard afterE4 = startingBoard();
+        afterE4.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        cache.lookup(start, ChessGame.TeamColor.WHITE, 42);
+        LegalMoveCache.Entry entry = cache.lookup(afterE4, ChessGame.TeamColor.WHITE, 42);
+
+        Assertions.assertEquals(0, cache.hits());
+        Assertions.assertEquals(2, cache.misses());
+        Assertions.assertEquals(new HashSet<>(LegalMoveGenerator.legalMoves(afterE4, ChessGame.TeamColor.WHITE)),
+                new HashSet<>(entry.moves()));
+        Assertions.assertSame(entry, cache.lookup(afterE4, ChessGame.TeamColor.WHITE, 42));
+    }
+}
@@ -0,0 +1,72 @@
+package chess.rules;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static passoff.chess.TestUtilities.move;
+
+class LegalMoveGeneratorTests {
+
+    private static Set<ChessMove> legalMoves(String fen) {
+        ChessGame game = ChessGame.fromFen(fen);
+        return new HashSet<>(LegalMoveGenerator.legalMoves(game.getBoard(), game.getTeamTurn()));
+    }
+
+    private static Set<ChessMove> movesFrom(Collection<ChessMove> moves, int row, int col) {
+        Set<ChessMove> from = new HashSet<>();
+        for (ChessMove move : moves) {
+            if (move.getStartPosition().equals(new ChessPosition(row, col))) {
+                from.add(move);
+            }
+        }
+        return from;
+    }
+
+    @Test
+    @DisplayName("A pinned piece only moves along the pin")
+    void pins() {
+        // The bishop on d2 is pinned diagonally by the bishop on a5 and may only slide toward or take it
+        Set<ChessMove> moves = legalMoves("4k3/8/8/b7/8/8/3B4/4K3 w - - 0 1");
+        Assertions.assertEquals(Set.of(move(2, 4, 3, 3), move(2, 4, 4, 2), move(2, 4, 5, 1)),
+                movesFrom(moves, 2, 4));
+
+        // A knight pinned by a rook cannot move at all
+        Assertions.assertTrue(movesFrom(legalMoves("4r1k1/8/8/8/8/8/4N3/4K3 w - - 0 1"), 2, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("In check, only captures of the checker, blocks and king moves are legal")
+    void checkEvasion() {
+        // The rook on e8 checks the king on e1: the rook on a8 can take it, the knight can block on e3
+        // and the bishop on e2, and the king can step off the file
+        Set<ChessMove> moves = legalMoves("R3r2k/8/8/8/8/8/2N5/4KB2 w - - 0 1");
+        Set<ChessMove> expected = Set.of(move(8, 1, 8, 5), move(2, 3, 3, 5), move(1, 6, 2, 5),
+                move(1, 5, 1, 4), move(1, 5, 2, 4), move(1, 5, 2, 6));
+        Assertions.assertEquals(expected, moves);
+    }
+
+    @Test
+    @DisplayName("In double check, only the king may move")
+    void doubleCheck() {
+        // The rook on e8 and the knight on d3 both check the king on e1, so the queen may not take the knight
+        Set<ChessMove> moves = legalMoves("k3r3/8/8/8/8/3n4/8/3QK3 w - - 0 1");
+        for (ChessMove move : moves) {
+            Assertions.assertEquals(new ChessPosition(1, 5), move.getStartPosition());
+        }
+        Assertions.assertFalse(moves.isEmpty());
+    }
+
+    @Test
+    @DisplayName("The king may not step along the line of a slider checking it")
+    void kingStaysOffCheckingLine() {
+        Set<ChessMove> moves = legalMoves("k7/8/8/8/8/8/8/r3K3 w - - 0 1");
+        Assertions.assertFalse(moves.contains(move(1, 5, 1, 6)));
+        Assertions.assertTrue(moves.contains(move(1, 5, 2, 5)));
+    }
+}
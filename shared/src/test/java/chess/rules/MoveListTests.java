@@ -0,0 +1,21 @@
+package chess.rules;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MoveListTests {
+
+    @Test
+    @DisplayName("A list grows past its capacity, even from zero")
+    void growsFromAnyCapacity() {
+        for (int capacity = 0; capacity <= 2; capacity++) {
+            MoveList list = new MoveList(capacity);
+            for (int move = 0; move < 10; move++) {
+                list.add(move);
+            }
+            Assertions.assertEquals(10, list.size());
+            Assertions.assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, list.toArray());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package chess.rules;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * Perft node counts for standard test positions (chessprogramming.org "Perft Results").
+ */
+class PerftTests {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    private static final String POSITION_6 =
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    @Test
+    @DisplayName("Starting position")
+    void startingPosition() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(20, Perft.perft(game, 1));
+        Assertions.assertEquals(400, Perft.perft(game, 2));
+        Assertions.assertEquals(8902, Perft.perft(game, 3));
+        Assertions.assertEquals(197281, Perft.perft(game, 4));
+        Assertions.assertEquals(4865609, Perft.perft(game, 5));
+    }
+
+    @Test
+    @DisplayName("Position 2 (Kiwipete): castling, en passant and promotions")
+    void kiwipete() {
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+        Assertions.assertEquals(48, Perft.perft(game, 1));
+        Assertions.assertEquals(2039, Perft.perft(game, 2));
+        Assertions.assertEquals(97862, Perft.perft(game, 3));
+        Assertions.assertEquals(4085603, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Position 3: rook and pawn endgame with pins")
+    void position3() {
+        ChessGame game = ChessGame.fromFen(POSITION_3);
+        Assertions.assertEquals(14, Perft.perft(game, 1));
+        Assertions.assertEquals(191, Perft.perft(game, 2));
+        Assertions.assertEquals(2812, Perft.perft(game, 3));
+        Assertions.assertEquals(43238, Perft.perft(game, 4));
+        Assertions.assertEquals(674624, Perft.perft(game, 5));
+    }
+
+    @Test
+    @DisplayName("Position 4: in check with promotions available")
+    void position4() {
+        ChessGame game = ChessGame.fromFen(POSITION_4);
+        Assertions.assertEquals(6, Perft.perft(game, 1));
+        Assertions.assertEquals(264, Perft.perft(game, 2));
+        Assertions.assertEquals(9467, Perft.perft(game, 3));
+        Assertions.assertEquals(422333, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Position 5: promotion by capture and castling")
+    void position5() {
+        ChessGame game = ChessGame.fromFen(POSITION_5);
+        Assertions.assertEquals(44, Perft.perft(game, 1));
+        Assertions.assertEquals(1486, Perft.perft(game, 2));
+        Assertions.assertEquals(62379, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Position 6: middlegame")
+    void position6() {
+        ChessGame game = ChessGame.fromFen(POSITION_6);
+        Assertions.assertEquals(46, Perft.perft(game, 1));
+        Assertions.assertEquals(2079, Perft.perft(game, 2));
+        Assertions.assertEquals(89890, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Divide adds up to perft and leaves the game untouched")
+    void divideMatchesPerft() {
+        ChessGame game = new ChessGame();
+        ChessGame untouched = new ChessGame();
+        Map<ChessMove, Long> divide = Perft.divide(game, 3);
+
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(untouched, game);
+    }
+}
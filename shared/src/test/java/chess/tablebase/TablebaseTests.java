@@ -0,0 +1,88 @@
+package chess.tablebase;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class TablebaseTests {
+
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        TablebaseGenerator.writeAll(directory);
+        tablebase = new LocalTablebase(directory);
+    }
+
+    private static Wdl probe(String fen) {
+        return tablebase.probe(ChessGame.fromFen(fen));
+    }
+
+    @Test
+    @DisplayName("King and queen or rook beat a bare king, for either color")
+    void majorPieces() {
+        Assertions.assertEquals(Wdl.WIN, probe("8/8/8/3k4/8/8/8/K5Q1 w - - 0 1"));
+        Assertions.assertEquals(Wdl.LOSS, probe("8/8/8/3k4/8/8/8/K5Q1 b - - 0 1"));
+        Assertions.assertEquals(Wdl.LOSS, probe("r3k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+        Assertions.assertEquals(Wdl.WIN, probe("r3k3/8/8/8/8/8/8/4K3 b - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Mates, stalemates and captures")
+    void terminalPositions() {
+        Assertions.assertEquals(Wdl.LOSS, probe("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1"));
+        Assertions.assertEquals(Wdl.DRAW, probe("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1"));
+        // The queen is left hanging next to the black king
+        Assertions.assertEquals(Wdl.DRAW, probe("k7/1Q6/8/8/8/8/8/7K b - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("King and pawn against king")
+    void pawnEndings() {
+        // King on the sixth in front of its pawn wins whoever is to move
+        Assertions.assertEquals(Wdl.WIN, probe("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1"));
+        Assertions.assertEquals(Wdl.LOSS, probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1"));
+        // A rook pawn with the defending king in the corner is a draw
+        Assertions.assertEquals(Wdl.DRAW, probe("k7/8/8/P7/1K6/8/8/8 w - - 0 1"));
+        // A pawn about to promote for black
+        Assertions.assertEquals(Wdl.WIN, probe("8/8/8/8/8/8/3p4/K1k5 b - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Insufficient material is a draw, and bigger positions are not covered")
+    void coverage() {
+        Assertions.assertEquals(Wdl.DRAW, probe("4k3/8/8/8/8/8/8/4KN2 w - - 0 1"));
+        Assertions.assertEquals(Wdl.DRAW, probe("4k3/8/8/8/8/8/8/4K3 b - - 0 1"));
+        Assertions.assertNull(probe("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        // The white queen checks the black king with white to move, which cannot happen
+        Assertions.assertNull(probe("k7/8/8/8/8/8/8/K6Q w - - 0 1"));
+        Assertions.assertNull(new LocalTablebase(directory.resolve("missing")).probe(
+                ChessGame.fromFen("8/8/8/3k4/8/8/8/K5Q1 w - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("Tables need the ones they promote into, and other files are rejected")
+    void errors() throws IOException {
+        Path empty = Files.createDirectory(directory.resolve("empty"));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> TablebaseGenerator.generate(ChessPiece.PieceType.PAWN, new LocalTablebase(empty)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> TablebaseGenerator.generate(ChessPiece.PieceType.KNIGHT, new LocalTablebase(empty)));
+
+        Files.write(empty.resolve(LocalTablebase.fileName(ChessPiece.PieceType.QUEEN)), new byte[16]);
+        Assertions.assertThrows(UncheckedIOException.class,
+                () -> new LocalTablebase(empty).probe(ChessGame.fromFen("8/8/8/3k4/8/8/8/K5Q1 w - - 0 1")));
+    }
+}
@@ -70,6 +70,10 @@ public class TestUtilities {
         return validMoves;
     }
 
+    public static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+
     public static void assertMoves(ChessGame game, Set<ChessMove> validMoves, ChessPosition position) {
         var generatedMoves = game.validMoves(position);
         var actualMoves = new HashSet<>(generatedMoves);